@@ -0,0 +1,170 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
+
+import javax.annotation.Nonnull;
+import java.text.MessageFormat;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * statistic of action calls, each action is decorated with
+ * a call counter, the execution time and the allocated bytes
+ * of the executing thread, the statistic has no test dependencies,
+ * so it can be used as opt-in instrumentation of any agent
+ */
+public final class CActionStatistic
+{
+    /**
+     * entries of the action names
+     */
+    private final Map<String, CEntry> m_entries = new ConcurrentHashMap<>();
+
+    /**
+     * decorates actions
+     *
+     * @param p_actions action stream
+     * @return decorated action stream
+     */
+    @Nonnull
+    public Stream<IAction> decorate( @Nonnull final Stream<? extends IAction> p_actions )
+    {
+        return p_actions.map( this::decorate );
+    }
+
+    /**
+     * decorates an action
+     *
+     * @param p_action action
+     * @return decorated action
+     */
+    @Nonnull
+    public IAction decorate( @Nonnull final IAction p_action )
+    {
+        return new CStatisticAction( p_action, m_entries.computeIfAbsent( p_action.name().toString(), i -> new CEntry() ) );
+    }
+
+    /**
+     * returns the hot-action table ordered by the execution time
+     *
+     * @return report table
+     */
+    @Nonnull
+    public String report()
+    {
+        return MessageFormat.format( "{0}\t{1}\t{2}\t{3}\t{4}\n", "action", "calls", "total ms", "ns/call", "bytes/call" )
+               + m_entries.entrySet()
+                          .stream()
+                          .filter( i -> i.getValue().m_calls.sum() > 0 )
+                          .sorted( Comparator.comparingLong( ( Map.Entry<String, CEntry> i ) -> i.getValue().m_time.sum() ).reversed() )
+                          .map( i -> MessageFormat.format(
+                              "{0}\t{1}\t{2,number,#.###}\t{3,number,#}\t{4,number,#}",
+                              i.getKey(),
+                              i.getValue().m_calls.sum(),
+                              i.getValue().m_time.sum() / 1e6,
+                              (double) i.getValue().m_time.sum() / i.getValue().m_calls.sum(),
+                              (double) i.getValue().m_bytes.sum() / i.getValue().m_calls.sum()
+                          ) )
+                          .collect( Collectors.joining( "\n" ) );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * statistic entry of an action name
+     */
+    private static final class CEntry
+    {
+        /**
+         * number of calls
+         */
+        private final LongAdder m_calls = new LongAdder();
+        /**
+         * execution time in nanoseconds
+         */
+        private final LongAdder m_time = new LongAdder();
+        /**
+         * allocated bytes
+         */
+        private final LongAdder m_bytes = new LongAdder();
+    }
+
+    /**
+     * action decorator with statistic
+     */
+    private static final class CStatisticAction extends IBaseActionDecorator
+    {
+        /**
+         * serial id
+         */
+        private static final long serialVersionUID = -6219843406587134207L;
+        /**
+         * statistic entry
+         */
+        private final transient CEntry m_entry;
+
+        /**
+         * ctor
+         *
+         * @param p_action decorated action
+         * @param p_entry statistic entry
+         */
+        CStatisticAction( @Nonnull final IAction p_action, @Nonnull final CEntry p_entry )
+        {
+            super( p_action );
+            m_entry = p_entry;
+        }
+
+        @Nonnull
+        @Override
+        public Stream<IFuzzyValue<?>> execute( final boolean p_parallel, @Nonnull final IContext p_context,
+                                               @Nonnull final List<ITerm> p_argument, @Nonnull final List<ITerm> p_return )
+        {
+            final long l_bytes = CAllocation.current();
+            final long l_start = System.nanoTime();
+            try
+            {
+                // the result stream is lazy, so it is materialized within the measurement
+                return m_action.execute( p_parallel, p_context, p_argument, p_return ).collect( Collectors.toList() ).stream();
+            }
+            finally
+            {
+                m_entry.m_time.add( System.nanoTime() - l_start );
+                m_entry.m_bytes.add( CAllocation.current() - l_bytes );
+                m_entry.m_calls.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * scheduler, which pins each agent to a worker thread, the worker of an agent is
+ * defined by a consistent hash of the agent, so the agent state stays in the cache
+ * of the worker between the cycles, a worker, which has finished its agents, steals
+ * agents of another worker only if the other worker has more agents left than the
+ * imbalance threshold, stolen agents stay pinned to their worker for the next cycle
+ */
+public final class CAffinityScheduler implements IAgentScheduler
+{
+    /**
+     * number of virtual nodes of each worker on the hash ring
+     */
+    private static final int NODES = 64;
+    /**
+     * cycle call of an agent
+     */
+    private final Predicate<IAgent<?>> m_cycle;
+    /**
+     * minimal number of remaining agents of a worker to steal
+     */
+    private final int m_imbalance;
+    /**
+     * single thread executor of each worker
+     */
+    private final List<ExecutorService> m_workers;
+    /**
+     * hash ring with the virtual nodes of the workers
+     */
+    private final NavigableMap<Integer, Integer> m_ring = new TreeMap<>();
+    /**
+     * number of stolen agent cycles
+     */
+    private final LongAdder m_stolen = new LongAdder();
+
+    /**
+     * ctor
+     *
+     * @param p_workers number of workers
+     * @param p_imbalance minimal number of remaining agents of a worker to steal
+     * @param p_cycle cycle call of an agent
+     */
+    public CAffinityScheduler( @Nonnegative final int p_workers, @Nonnegative final int p_imbalance, @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        m_cycle = p_cycle;
+        m_imbalance = p_imbalance;
+        m_workers = IntStream.range( 0, Math.max( 1, p_workers ) )
+                             .mapToObj( i -> Executors.newSingleThreadExecutor( CThreadScheduler.daemon( "agent-worker-" + i ) ) )
+                             .collect( Collectors.toList() );
+
+        IntStream.range( 0, m_workers.size() )
+                 .forEach( i -> IntStream.range( 0, NODES ).forEach( j -> m_ring.put( hash( ( (long) i << 32 ) | j ), i ) ) );
+    }
+
+    /**
+     * returns the worker of an agent
+     *
+     * @param p_agent agent
+     * @return worker index
+     */
+    @Nonnegative
+    public int worker( @Nonnull final IAgent<?> p_agent )
+    {
+        final Map.Entry<Integer, Integer> l_node = m_ring.ceilingEntry( hash( System.identityHashCode( p_agent ) ) );
+        return ( l_node == null ? m_ring.firstEntry() : l_node ).getValue();
+    }
+
+    /**
+     * returns the number of stolen agent cycles
+     *
+     * @return number of cycles, which are not executed on the worker of the agent
+     */
+    @Nonnegative
+    public long stolen()
+    {
+        return m_stolen.sum();
+    }
+
+    @Override
+    public long execute( @Nonnull final Collection<? extends IAgent<?>> p_agents, @Nonnegative final int p_cycles ) throws InterruptedException
+    {
+        final List<List<IAgent<?>>> l_partitions = IntStream.range( 0, m_workers.size() )
+                                                            .mapToObj( i -> new ArrayList<IAgent<?>>() )
+                                                            .collect( Collectors.toList() );
+        p_agents.forEach( i -> l_partitions.get( this.worker( i ) ).add( i ) );
+
+        final List<CQueue> l_queues = l_partitions.stream().map( CQueue::new ).collect( Collectors.toList() );
+        final AtomicReference<Throwable> l_error = new AtomicReference<>();
+
+        long l_cycles = 0;
+        for ( int i = 0; i < p_cycles && Objects.isNull( l_error.get() ); i++ )
+        {
+            l_queues.forEach( CQueue::reset );
+
+            final List<Future<Long>> l_futures = IntStream.range( 0, m_workers.size() )
+                                                          .mapToObj( j -> m_workers.get( j ).submit( () -> this.work( j, l_queues, l_error ) ) )
+                                                          .collect( Collectors.toList() );
+
+            for ( final Future<Long> l_future : l_futures )
+            {
+                try
+                {
+                    l_cycles += l_future.get();
+                }
+                catch ( final ExecutionException l_exception )
+                {
+                    l_error.compareAndSet( null, l_exception.getCause() );
+                }
+            }
+        }
+
+        if ( Objects.nonNull( l_error.get() ) )
+            throw new IllegalStateException( l_error.get() );
+
+        return l_cycles;
+    }
+
+    @Override
+    public void close()
+    {
+        m_workers.forEach( ExecutorService::shutdownNow );
+    }
+
+    /**
+     * executes the agents of a worker and steals agents
+     * of imbalanced workers afterwards, the first error
+     * of any worker stops the loops of all workers
+     *
+     * @param p_worker worker index
+     * @param p_queues agent queues of all workers
+     * @param p_error first error of all workers
+     * @return number of successful cycles
+     */
+    private long work( @Nonnegative final int p_worker, @Nonnull final List<CQueue> p_queues, @Nonnull final AtomicReference<Throwable> p_error )
+    {
+        long l_cycles = 0;
+        final CQueue l_queue = p_queues.get( p_worker );
+
+        try
+        {
+            for ( IAgent<?> l_agent = l_queue.poll(); l_agent != null && Objects.isNull( p_error.get() ); l_agent = l_queue.poll() )
+                if ( m_cycle.test( l_agent ) )
+                    l_cycles++;
+
+            for ( IAgent<?> l_agent = this.steal( p_queues ); l_agent != null && Objects.isNull( p_error.get() ); l_agent = this.steal( p_queues ) )
+            {
+                m_stolen.increment();
+                if ( m_cycle.test( l_agent ) )
+                    l_cycles++;
+            }
+        }
+        catch ( final Throwable l_exception )
+        {
+            p_error.compareAndSet( null, l_exception );
+        }
+
+        return l_cycles;
+    }
+
+    /**
+     * steals an agent of the worker with the most remaining agents
+     *
+     * @param p_queues agent queues of all workers
+     * @return agent or null if the workers are balanced
+     */
+    private IAgent<?> steal( @Nonnull final List<CQueue> p_queues )
+    {
+        CQueue l_victim = null;
+        for ( final CQueue l_queue : p_queues )
+            if ( l_queue.size() > m_imbalance && ( l_victim == null || l_queue.size() > l_victim.size() ) )
+                l_victim = l_queue;
+
+        return l_victim == null ? null : l_victim.steal( m_imbalance );
+    }
+
+    /**
+     * hash function of the ring (finalizer of the murmur3 hash)
+     *
+     * @param p_value value
+     * @return hash
+     */
+    private static int hash( final long p_value )
+    {
+        long l_hash = p_value;
+        l_hash ^= l_hash >>> 33;
+        l_hash *= 0xff51afd7ed558ccdL;
+        l_hash ^= l_hash >>> 33;
+        l_hash *= 0xc4ceb9fe1a85ec53L;
+        l_hash ^= l_hash >>> 33;
+        return (int) l_hash;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * agent queue of a worker, the worker takes the agents from the head and other
+     * workers steal from the tail, head and tail are packed into one atomic value
+     */
+    private static final class CQueue
+    {
+        /**
+         * agents
+         */
+        private final IAgent<?>[] m_agents;
+        /**
+         * head index in the upper and tail index in the lower bits
+         */
+        private final AtomicLong m_bounds = new AtomicLong();
+
+        /**
+         * ctor
+         *
+         * @param p_agents agents
+         */
+        CQueue( @Nonnull final List<IAgent<?>> p_agents )
+        {
+            m_agents = p_agents.toArray( new IAgent<?>[0] );
+        }
+
+        /**
+         * resets the queue to all agents
+         */
+        void reset()
+        {
+            m_bounds.set( m_agents.length );
+        }
+
+        /**
+         * returns the number of remaining agents
+         *
+         * @return number of agents
+         */
+        int size()
+        {
+            final long l_bounds = m_bounds.get();
+            return (int) l_bounds - (int) ( l_bounds >>> 32 );
+        }
+
+        /**
+         * takes the agent at the head
+         *
+         * @return agent or null if the queue is empty
+         */
+        IAgent<?> poll()
+        {
+            while ( true )
+            {
+                final long l_bounds = m_bounds.get();
+                final int l_head = (int) ( l_bounds >>> 32 );
+                if ( l_head >= (int) l_bounds )
+                    return null;
+                if ( m_bounds.compareAndSet( l_bounds, l_bounds + ( 1L << 32 ) ) )
+                    return m_agents[l_head];
+            }
+        }
+
+        /**
+         * takes the agent at the tail, if more agents than the threshold are remaining
+         *
+         * @param p_threshold threshold
+         * @return agent or null if the queue is not imbalanced
+         */
+        IAgent<?> steal( @Nonnegative final int p_threshold )
+        {
+            while ( true )
+            {
+                final long l_bounds = m_bounds.get();
+                final int l_tail = (int) l_bounds;
+                if ( l_tail - (int) ( l_bounds >>> 32 ) <= Math.max( 0, p_threshold ) )
+                    return null;
+                if ( m_bounds.compareAndSet( l_bounds, l_bounds - 1 ) )
+                    return m_agents[l_tail - 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.common.CPath;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ILiteral;
+import org.lightjason.agentspeak.language.ITerm;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * compact binary snapshot of the agent state.
+ * The snapshot stores the beliefs of an agent as encoded terms within
+ * a memory-mapped file, a literal is stored with its flags, functor and
+ * typed values, a value is a literal, a number, a boolean or a string,
+ * other raw values cannot be stored, plans and rules are not stored,
+ * because they are rebuilt by the agent generator from the asl source,
+ * so a restore runs on a fresh agent of the same source
+ */
+public final class CAgentSnapshot
+{
+    /**
+     * magic number of the snapshot format
+     */
+    private static final int MAGIC = 0x4c4a5332;
+    /**
+     * size of the header (magic number and number of literals)
+     */
+    private static final int HEADERSIZE = 2 * Integer.BYTES;
+    /**
+     * minimal size of a literal (flags, functor length and number of values)
+     */
+    private static final int LITERALSIZE = Byte.BYTES + 2 * Integer.BYTES;
+    /**
+     * flag of a literal with an at
+     */
+    private static final byte AT = 1;
+    /**
+     * flag of a negated literal
+     */
+    private static final byte NEGATED = 2;
+    /**
+     * type of a literal value
+     */
+    private static final byte LITERAL = 0;
+    /**
+     * type of a floating-point value
+     */
+    private static final byte DOUBLE = 1;
+    /**
+     * type of an integral value
+     */
+    private static final byte LONG = 2;
+    /**
+     * type of a boolean value
+     */
+    private static final byte BOOLEAN = 3;
+    /**
+     * type of a string value
+     */
+    private static final byte STRING = 4;
+
+    /**
+     * ctor
+     */
+    private CAgentSnapshot()
+    {
+    }
+
+    /**
+     * writes the agent state into a snapshot file
+     *
+     * @param p_agent agent
+     * @param p_file snapshot file
+     * @return number of written bytes
+     * @throws IOException on io error or if a belief contains a value, which cannot be stored
+     */
+    @Nonnegative
+    public static long write( @Nonnull final IAgent<?> p_agent, @Nonnull final Path p_file ) throws IOException
+    {
+        final List<ILiteral> l_literals = p_agent.beliefbase().stream().collect( Collectors.toList() );
+
+        final ByteArrayOutputStream l_bytes = new ByteArrayOutputStream();
+        final DataOutputStream l_output = new DataOutputStream( l_bytes );
+        l_output.writeInt( MAGIC );
+        l_output.writeInt( l_literals.size() );
+        for ( final ILiteral l_literal : l_literals )
+            literal( l_output, l_literal );
+        l_output.flush();
+
+        try
+        (
+            final FileChannel l_channel = FileChannel.open(
+                p_file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+            )
+        )
+        {
+            final MappedByteBuffer l_buffer = l_channel.map( FileChannel.MapMode.READ_WRITE, 0, l_bytes.size() );
+            l_buffer.put( l_bytes.toByteArray() );
+            l_buffer.force();
+        }
+
+        return l_bytes.size();
+    }
+
+    /**
+     * restores the agent state from a snapshot file,
+     * the current beliefs of the agent will be replaced
+     *
+     * @param p_agent agent, which is generated by the same asl source
+     * @param p_file snapshot file
+     * @return agent
+     * @throws IOException on io error
+     */
+    @Nonnull
+    public static IAgent<?> restore( @Nonnull final IAgent<?> p_agent, @Nonnull final Path p_file ) throws IOException
+    {
+        final List<ILiteral> l_literals = read( p_file );
+
+        p_agent.beliefbase().clear();
+        p_agent.beliefbase().add( l_literals.toArray( new ILiteral[0] ) );
+
+        return p_agent;
+    }
+
+    /**
+     * reads all literals of a snapshot file
+     *
+     * @param p_file snapshot file
+     * @return literal list
+     * @throws IOException on io error
+     */
+    @Nonnull
+    public static List<ILiteral> read( @Nonnull final Path p_file ) throws IOException
+    {
+        try
+        (
+            final FileChannel l_channel = FileChannel.open( p_file, StandardOpenOption.READ )
+        )
+        {
+            final MappedByteBuffer l_buffer = l_channel.map( FileChannel.MapMode.READ_ONLY, 0, l_channel.size() );
+
+            if ( l_buffer.remaining() < HEADERSIZE || l_buffer.getInt() != MAGIC )
+                throw new IOException( MessageFormat.format( "file [{0}] is not an agent snapshot", p_file ) );
+
+            final int l_count = l_buffer.getInt();
+            if ( l_count < 0 || l_count > l_buffer.remaining() / LITERALSIZE )
+                throw corrupt( p_file );
+
+            final List<ILiteral> l_literals = new ArrayList<>( l_count );
+            for ( int i = 0; i < l_count; i++ )
+                l_literals.add( literal( l_buffer, p_file ) );
+
+            return l_literals;
+        }
+        catch ( final BufferUnderflowException l_exception )
+        {
+            throw corrupt( p_file );
+        }
+    }
+
+    /**
+     * encodes a literal
+     *
+     * @param p_output output
+     * @param p_literal literal
+     * @throws IOException on io error or if a value cannot be stored
+     */
+    private static void literal( @Nonnull final DataOutputStream p_output, @Nonnull final ILiteral p_literal ) throws IOException
+    {
+        final List<ITerm> l_values = p_literal.orderedvalues().collect( Collectors.toList() );
+
+        p_output.writeByte( ( p_literal.hasAt() ? AT : 0 ) | ( p_literal.negated() ? NEGATED : 0 ) );
+        string( p_output, p_literal.fqnfunctor().toString() );
+        p_output.writeInt( l_values.size() );
+
+        for ( final ITerm l_value : l_values )
+            value( p_output, l_value, p_literal );
+    }
+
+    /**
+     * encodes a value of a literal
+     *
+     * @param p_output output
+     * @param p_value value
+     * @param p_literal literal of the value
+     * @throws IOException on io error or if the value cannot be stored
+     */
+    private static void value( @Nonnull final DataOutputStream p_output, @Nonnull final ITerm p_value, @Nonnull final ILiteral p_literal ) throws IOException
+    {
+        if ( p_value instanceof ILiteral )
+        {
+            p_output.writeByte( LITERAL );
+            literal( p_output, (ILiteral) p_value );
+            return;
+        }
+
+        final Object l_raw = p_value.raw();
+        if ( l_raw instanceof Double || l_raw instanceof Float )
+        {
+            p_output.writeByte( DOUBLE );
+            p_output.writeDouble( ( (Number) l_raw ).doubleValue() );
+        }
+        else if ( l_raw instanceof Long || l_raw instanceof Integer || l_raw instanceof Short || l_raw instanceof Byte )
+        {
+            p_output.writeByte( LONG );
+            p_output.writeLong( ( (Number) l_raw ).longValue() );
+        }
+        else if ( l_raw instanceof Boolean )
+        {
+            p_output.writeByte( BOOLEAN );
+            p_output.writeBoolean( (Boolean) l_raw );
+        }
+        else if ( l_raw instanceof String )
+        {
+            p_output.writeByte( STRING );
+            string( p_output, (String) l_raw );
+        }
+        else
+            throw new IOException( MessageFormat.format( "value [{0}] of belief [{1}] cannot be stored", p_value, p_literal ) );
+    }
+
+    /**
+     * encodes a length-prefixed UTF-8 string
+     *
+     * @param p_output output
+     * @param p_value string
+     * @throws IOException on io error
+     */
+    private static void string( @Nonnull final DataOutputStream p_output, @Nonnull final String p_value ) throws IOException
+    {
+        final byte[] l_bytes = p_value.getBytes( StandardCharsets.UTF_8 );
+        p_output.writeInt( l_bytes.length );
+        p_output.write( l_bytes );
+    }
+
+    /**
+     * decodes a literal
+     *
+     * @param p_buffer buffer at the position of the literal
+     * @param p_file snapshot file
+     * @return literal
+     * @throws IOException on decoding error or if a length exceeds the file
+     */
+    @Nonnull
+    private static ILiteral literal( @Nonnull final ByteBuffer p_buffer, @Nonnull final Path p_file ) throws IOException
+    {
+        final byte l_flags = p_buffer.get();
+        if ( ( l_flags & ~( AT | NEGATED ) ) != 0 )
+            throw corrupt( p_file );
+
+        final String l_functor = string( p_buffer, p_file );
+
+        // each value needs at least a type and a boolean
+        final int l_count = p_buffer.getInt();
+        if ( l_count < 0 || l_count > p_buffer.remaining() / 2 )
+            throw corrupt( p_file );
+
+        final ITerm[] l_values = new ITerm[l_count];
+        for ( int i = 0; i < l_count; i++ )
+            l_values[i] = value( p_buffer, p_file );
+
+        return CLiteral.of( ( l_flags & AT ) != 0, ( l_flags & NEGATED ) != 0, CPath.of( l_functor ), l_values );
+    }
+
+    /**
+     * decodes a value of a literal
+     *
+     * @param p_buffer buffer at the position of the value
+     * @param p_file snapshot file
+     * @return value
+     * @throws IOException on decoding error
+     */
+    @Nonnull
+    private static ITerm value( @Nonnull final ByteBuffer p_buffer, @Nonnull final Path p_file ) throws IOException
+    {
+        switch ( p_buffer.get() )
+        {
+            case LITERAL:
+                return literal( p_buffer, p_file );
+
+            case DOUBLE:
+                return CRawTerm.of( p_buffer.getDouble() );
+
+            case LONG:
+                return CRawTerm.of( p_buffer.getLong() );
+
+            case BOOLEAN:
+                return CRawTerm.of( p_buffer.get() != 0 );
+
+            case STRING:
+                return CRawTerm.of( string( p_buffer, p_file ) );
+
+            default:
+                throw corrupt( p_file );
+        }
+    }
+
+    /**
+     * decodes a length-prefixed UTF-8 string
+     *
+     * @param p_buffer buffer at the position of the string
+     * @param p_file snapshot file
+     * @return string
+     * @throws IOException if the length exceeds the file
+     */
+    @Nonnull
+    private static String string( @Nonnull final ByteBuffer p_buffer, @Nonnull final Path p_file ) throws IOException
+    {
+        final int l_length = p_buffer.getInt();
+        if ( l_length < 0 || l_length > p_buffer.remaining() )
+            throw corrupt( p_file );
+
+        final byte[] l_bytes = new byte[l_length];
+        p_buffer.get( l_bytes );
+        return new String( l_bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * creates the error of a truncated or corrupt snapshot
+     *
+     * @param p_file snapshot file
+     * @return io exception
+     */
+    @Nonnull
+    private static IOException corrupt( @Nonnull final Path p_file )
+    {
+        return new IOException( MessageFormat.format( "snapshot [{0}] is truncated or corrupt", p_file ) );
+    }
+}
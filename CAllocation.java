@@ -0,0 +1,61 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+
+/**
+ * allocation measurement of the current thread, the measurement
+ * needs the thread bean of the hotspot management extension
+ */
+public final class CAllocation
+{
+    /**
+     * thread bean with allocation measurement
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                                                                   ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()
+                                                                   : null;
+
+    /**
+     * ctor
+     */
+    private CAllocation()
+    {
+    }
+
+    /**
+     * returns the allocated bytes of the current thread
+     *
+     * @return allocated bytes or zero if not supported
+     */
+    public static long current()
+    {
+        return Objects.isNull( THREADS ) || !THREADS.isThreadAllocatedMemoryEnabled()
+               ? 0
+               : THREADS.getThreadAllocatedBytes( Thread.currentThread().getId() );
+    }
+}
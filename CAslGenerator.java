@@ -0,0 +1,188 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.stream.IntStream;
+
+
+/**
+ * generator of synthetic asl scripts, a script consists of initial beliefs,
+ * a chain of rules, plans with achievement sub-goals and a lambda loop,
+ * each part checks a computed value (rule result, unified belief value,
+ * goal argument, lambda element) with test/result calls and the header
+ * of the script contains the matching number of test results
+ */
+final class CAslGenerator
+{
+    /**
+     * maximum number of belief unifications
+     */
+    private static final int QUERIES = 10;
+    /**
+     * number of plans
+     */
+    private final int m_plans;
+    /**
+     * depth of the rule chain
+     */
+    private final int m_ruledepth;
+    /**
+     * number of initial beliefs
+     */
+    private final int m_beliefs;
+    /**
+     * number of lambda elements
+     */
+    private final int m_lambdasize;
+    /**
+     * number of sub-goals of each plan
+     */
+    private final int m_branching;
+
+    /**
+     * ctor
+     *
+     * @param p_plans number of plans
+     * @param p_ruledepth depth of the rule chain
+     * @param p_beliefs number of initial beliefs
+     * @param p_lambdasize number of lambda elements
+     * @param p_branching number of sub-goals of each plan
+     */
+    CAslGenerator( @Nonnegative final int p_plans, @Nonnegative final int p_ruledepth, @Nonnegative final int p_beliefs,
+                   @Nonnegative final int p_lambdasize, @Nonnegative final int p_branching )
+    {
+        m_plans = p_plans;
+        m_ruledepth = p_ruledepth;
+        m_beliefs = p_beliefs;
+        m_lambdasize = p_lambdasize;
+        m_branching = p_branching;
+    }
+
+    /**
+     * returns the script name with the parameters
+     *
+     * @return name
+     */
+    @Nonnull
+    String name()
+    {
+        return MessageFormat.format(
+            "generated-plans{0,number,#}-ruledepth{1,number,#}-beliefs{2,number,#}-lambdasize{3,number,#}-branching{4,number,#}.asl",
+            m_plans, m_ruledepth, m_beliefs, m_lambdasize, m_branching
+        );
+    }
+
+    /**
+     * returns the number of expected test results
+     *
+     * @return number of test results
+     */
+    @Nonnegative
+    int testcount()
+    {
+        return m_plans * ( 1 + m_branching ) + Math.min( 1, m_ruledepth ) + Math.min( QUERIES, m_beliefs ) + m_lambdasize;
+    }
+
+    /**
+     * generates the script
+     *
+     * @return script
+     */
+    @Nonnull
+    CAslScript script()
+    {
+        return CAslScript.of( this.name(), this.generate().getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * generates the asl code
+     *
+     * @return asl code
+     */
+    @Nonnull
+    String generate()
+    {
+        final StringBuilder l_asl = new StringBuilder();
+
+        l_asl.append( "// " ).append( this.name() ).append( '\n' )
+             .append( "// @iteration 2\n" )
+             .append( "// @testcount " ).append( this.testcount() ).append( "\n\n" );
+
+        // initial beliefs, the value is the doubled index
+        IntStream.range( 0, m_beliefs ).forEach( i -> l_asl.append( MessageFormat.format( "item( {0,number,#}, {1,number,#} ).\n", i, 2L * i ) ) );
+
+        // rule chain, each rule calls the previous rule and increments the value
+        if ( m_ruledepth > 0 )
+            l_asl.append( "\ndepth0( X, R ) :- R = X + 1.\n" );
+        IntStream.range( 1, m_ruledepth ).forEach( i -> l_asl.append(
+            MessageFormat.format( "depth{0,number,#}( X, R ) :- $depth{1,number,#}( X, T ); R = T + 1.\n", i, i - 1 )
+        ) );
+
+        // main plan with rule call, belief unifications, lambda loop and plan calls
+        l_asl.append( "\n!main.\n\n+!main <-\n" );
+
+        if ( m_ruledepth > 0 )
+            l_asl.append( MessageFormat.format(
+                "    $depth{0,number,#}( 0, R );\n    test/result( R == {1,number,#}, \"rule depth {1,number,#}\" );\n",
+                m_ruledepth - 1, m_ruledepth
+            ) );
+
+        IntStream.range( 0, Math.min( QUERIES, m_beliefs ) )
+                 .forEach( i ->
+                 {
+                     final long l_item = (long) i * m_beliefs / Math.min( QUERIES, m_beliefs );
+                     l_asl.append( MessageFormat.format(
+                         "    >>item( {0,number,#}, V{1,number,#} );\n    test/result( V{1,number,#} == {2,number,#}, \"belief item {0,number,#}\" );\n",
+                         l_item, i, 2 * l_item
+                     ) );
+                 } );
+
+        if ( m_lambdasize > 0 )
+            l_asl.append( MessageFormat.format(
+                "    L = test/list/range( 0, {0,number,#} );\n    (L) -> I : '{' test/result( I >= 0 && I < {0,number,#}, \"lambda element\" ) '}';\n",
+                m_lambdasize
+            ) );
+
+        IntStream.range( 0, m_plans ).forEach( i -> l_asl.append( MessageFormat.format( "    !!plan{0,number,#}( {0,number,#} );\n", i ) ) );
+        l_asl.append( "    test/print( \"generated script finished\" )\n.\n" );
+
+        // plans with sub-goals, each goal checks its argument, which is computed by the calling plan
+        IntStream.range( 0, m_plans ).forEach( i ->
+        {
+            l_asl.append( MessageFormat.format( "\n+!plan{0,number,#}( N ) <-\n    test/result( N == {0,number,#}, \"plan {0,number,#}\" )", i ) );
+            IntStream.range( 0, m_branching ).forEach( j -> l_asl.append( MessageFormat.format( ";\n    !!leaf{0,number,#}x{1,number,#}( N + {1,number,#} )", i, j ) ) );
+            l_asl.append( "\n.\n" );
+
+            IntStream.range( 0, m_branching ).forEach( j -> l_asl.append( MessageFormat.format(
+                "\n+!leaf{0,number,#}x{1,number,#}( M ) <-\n    test/result( M == {2,number,#}, \"leaf {0,number,#} {1,number,#}\" )\n.\n", i, j, i + j
+            ) ) );
+        } );
+
+        return l_asl.toString();
+    }
+}
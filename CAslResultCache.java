@@ -0,0 +1,306 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * cache of successful asl runs, an asl file is skipped if
+ * the hash of its content and the fingerprint of the classpath
+ * (engine and test actions) are equal to the last successful run,
+ * an unreadable cache or classpath is handled as an empty cache
+ */
+final class CAslResultCache
+{
+    /**
+     * hash algorithm
+     */
+    private static final String ALGORITHM = "SHA-256";
+    /**
+     * cache file
+     */
+    private final Path m_file;
+    /**
+     * fingerprint of the classpath or null if the classpath cannot be read
+     */
+    private final String m_fingerprint;
+    /**
+     * hashes of the successful runs
+     */
+    private final Map<String, String> m_result = new ConcurrentHashMap<>();
+
+    /**
+     * ctor
+     *
+     * @param p_file cache file
+     * @param p_classes classes, which code sources define the classpath fingerprint
+     */
+    CAslResultCache( @Nonnull final Path p_file, @Nonnull final Class<?>... p_classes )
+    {
+        m_file = p_file;
+        m_fingerprint = fingerprint( p_classes );
+
+        // a broken cache file forces a full run
+        if ( Objects.nonNull( m_fingerprint ) )
+            m_result.putAll( read( m_file ) );
+    }
+
+    /**
+     * checks if the asl file is unchanged since the last successful run
+     *
+     * @param p_file asl file
+     * @param p_content content of the file
+     * @return true if the file can be skipped
+     */
+    boolean passed( @Nonnull final String p_file, @Nonnull final byte[] p_content )
+    {
+        return Objects.nonNull( m_fingerprint ) && this.hash( p_content ).equals( m_result.get( p_file ) );
+    }
+
+    /**
+     * stores a successful run of an asl file
+     *
+     * @param p_file asl file
+     * @param p_content content of the file
+     */
+    void success( @Nonnull final String p_file, @Nonnull final byte[] p_content )
+    {
+        if ( Objects.nonNull( m_fingerprint ) )
+            m_result.put( p_file, this.hash( p_content ) );
+    }
+
+    /**
+     * writes the cache file, the results are merged with the file under a
+     * file lock, so concurrent jvms (e.g. shards) keep the results of each
+     * other, and the file is replaced atomically, so an interrupted write
+     * does not corrupt the cache
+     *
+     * @throws IOException on io error
+     */
+    void store() throws IOException
+    {
+        if ( Objects.isNull( m_fingerprint ) )
+            return;
+
+        try
+        (
+            final FileChannel l_channel = FileChannel.open(
+                m_file.resolveSibling( m_file.getFileName() + ".lock" ), StandardOpenOption.CREATE, StandardOpenOption.WRITE
+            );
+            final FileLock l_lock = l_channel.lock()
+        )
+        {
+            final Properties l_property = new Properties();
+            read( m_file ).forEach( l_property::setProperty );
+            m_result.forEach( l_property::setProperty );
+
+            final Path l_temporary = Files.createTempFile( m_file.toAbsolutePath().getParent(), m_file.getFileName().toString(), ".tmp" );
+            try
+            (
+                final Writer l_writer = Files.newBufferedWriter( l_temporary, StandardCharsets.UTF_8 )
+            )
+            {
+                l_property.store( l_writer, "hashes of successful asl runs" );
+            }
+
+            Files.move( l_temporary, m_file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+    }
+
+    /**
+     * reads the results of a cache file
+     *
+     * @param p_file cache file
+     * @return results, empty if the file does not exist or cannot be read
+     */
+    @Nonnull
+    private static Map<String, String> read( @Nonnull final Path p_file )
+    {
+        final Map<String, String> l_result = new HashMap<>();
+        if ( !Files.isRegularFile( p_file ) )
+            return l_result;
+
+        try
+        (
+            final Reader l_reader = Files.newBufferedReader( p_file, StandardCharsets.UTF_8 )
+        )
+        {
+            final Properties l_property = new Properties();
+            l_property.load( l_reader );
+            l_property.forEach( ( k, v ) -> l_result.put( k.toString(), v.toString() ) );
+            return l_result;
+        }
+        catch ( final IOException | IllegalArgumentException l_exception )
+        {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * hash of content and classpath fingerprint
+     *
+     * @param p_content content
+     * @return hex string
+     */
+    @Nonnull
+    private String hash( @Nonnull final byte[] p_content )
+    {
+        final MessageDigest l_digest = digest();
+        l_digest.update( p_content );
+        l_digest.update( m_fingerprint.getBytes( StandardCharsets.UTF_8 ) );
+        return new BigInteger( 1, l_digest.digest() ).toString( 16 );
+    }
+
+    /**
+     * builds the fingerprint of the code sources by the content
+     * of the jar files or of the class files within directories
+     *
+     * @param p_classes classes
+     * @return hex string or null if a code source cannot be read
+     */
+    private static String fingerprint( @Nonnull final Class<?>... p_classes )
+    {
+        final MessageDigest l_digest = digest();
+
+        try
+        {
+            Arrays.stream( p_classes )
+                  .map( i -> i.getProtectionDomain().getCodeSource() )
+                  .filter( Objects::nonNull )
+                  .map( CAslResultCache::location )
+                  .filter( Objects::nonNull )
+                  .distinct()
+                  .sorted()
+                  .flatMap( CAslResultCache::files )
+                  .forEach( i ->
+                  {
+                      try
+                      {
+                          l_digest.update( Files.readAllBytes( i ) );
+                      }
+                      catch ( final IOException l_exception )
+                      {
+                          throw new UncheckedIOException( l_exception );
+                      }
+                  } );
+        }
+        catch ( final UncheckedIOException l_exception )
+        {
+            return null;
+        }
+
+        return new BigInteger( 1, l_digest.digest() ).toString( 16 );
+    }
+
+    /**
+     * returns the path of a code source
+     *
+     * @param p_source code source
+     * @return path or null
+     */
+    private static Path location( @Nonnull final CodeSource p_source )
+    {
+        try
+        {
+            return Paths.get( p_source.getLocation().toURI() );
+        }
+        catch ( final URISyntaxException l_exception )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * returns all files of a code source
+     *
+     * @param p_path path of the code source
+     * @return file stream
+     */
+    @Nonnull
+    private static Stream<Path> files( @Nonnull final Path p_path )
+    {
+        if ( Files.isRegularFile( p_path ) )
+            return Stream.of( p_path );
+
+        try
+        (
+            final Stream<Path> l_walk = Files.walk( p_path )
+        )
+        {
+            return l_walk.filter( Files::isRegularFile )
+                         .filter( i -> i.toString().endsWith( ".class" ) )
+                         .sorted()
+                         .collect( Collectors.toList() )
+                         .stream();
+        }
+        catch ( final IOException l_exception )
+        {
+            throw new UncheckedIOException( l_exception );
+        }
+    }
+
+    /**
+     * creates the message digest
+     *
+     * @return digest
+     */
+    @Nonnull
+    private static MessageDigest digest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( ALGORITHM );
+        }
+        catch ( final NoSuchAlgorithmException l_exception )
+        {
+            throw new IllegalStateException( l_exception );
+        }
+    }
+}
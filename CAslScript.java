@@ -0,0 +1,306 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * asl test script with the header tags of the leading comment block,
+ * the content is stored as bytes and passed directly to the agent generator,
+ * a file, which cannot be read, results in a script with an error
+ */
+final class CAslScript
+{
+    /**
+     * empty script, if no asl files exist
+     */
+    static final CAslScript EMPTY = new CAslScript( "", new byte[0], "" );
+    /**
+     * tag of iteration
+     */
+    private static final String ITERATIONTAG = "@iteration";
+    /**
+     * tag of test results
+     */
+    private static final String TESTCOUNTTAG = "@testcount";
+    /**
+     * file name
+     */
+    private final String m_file;
+    /**
+     * file content
+     */
+    private final byte[] m_content;
+    /**
+     * number of agent cycles
+     */
+    private final int m_iteration;
+    /**
+     * number of expected test results
+     */
+    private final int m_testcount;
+    /**
+     * error message of loading or empty string
+     */
+    private final String m_error;
+
+    /**
+     * ctor
+     *
+     * @param p_file file name
+     * @param p_content UTF-8 content
+     * @param p_error error message of loading or empty string
+     */
+    private CAslScript( @Nonnull final String p_file, @Nonnull final byte[] p_content, @Nonnull final String p_error )
+    {
+        m_file = p_file;
+        m_content = p_content;
+        m_error = p_error;
+
+        // single scan over the leading comments, the scan stops on the first code token,
+        // lines are split on the bytes, because UTF-8 multibyte sequences never contain ascii bytes
+        int l_iteration = 1;
+        int l_testcount = 0;
+        boolean l_block = false;
+        boolean l_code = false;
+        int l_position = 0;
+
+        while ( l_position < p_content.length && !l_code )
+        {
+            int l_end = l_position;
+            while ( l_end < p_content.length && p_content[l_end] != '\n' )
+                l_end++;
+
+            final String l_line = new String( p_content, l_position, l_end - l_position, StandardCharsets.UTF_8 );
+            l_position = l_end + 1;
+
+            // the comment tokens of the line are collected, the block state is tracked per token
+            final StringBuilder l_comment = new StringBuilder();
+            int i = 0;
+            while ( i < l_line.length() && !l_code )
+                if ( l_block )
+                {
+                    final int l_close = l_line.indexOf( "*/", i );
+                    l_comment.append( l_line, i, l_close < 0 ? l_line.length() : l_close ).append( ' ' );
+                    l_block = l_close < 0;
+                    i = l_close < 0 ? l_line.length() : l_close + 2;
+                }
+                else if ( Character.isWhitespace( l_line.charAt( i ) ) )
+                    i++;
+                else if ( l_line.startsWith( "//", i ) )
+                {
+                    l_comment.append( l_line, i + 2, l_line.length() );
+                    i = l_line.length();
+                }
+                else if ( l_line.startsWith( "/*", i ) )
+                {
+                    l_block = true;
+                    i += 2;
+                }
+                else
+                    l_code = true;
+
+            l_iteration = tag( l_comment.toString(), ITERATIONTAG, l_iteration );
+            l_testcount = tag( l_comment.toString(), TESTCOUNTTAG, l_testcount );
+        }
+
+        m_iteration = l_iteration;
+        m_testcount = l_testcount;
+    }
+
+    /**
+     * loads asl files in parallel
+     *
+     * @param p_files file names
+     * @return scripts in the order of the file names
+     */
+    @Nonnull
+    static List<CAslScript> load( @Nonnull final Collection<String> p_files )
+    {
+        return p_files.parallelStream()
+                      .map( CAslScript::load )
+                      .collect( Collectors.toList() );
+    }
+
+    /**
+     * creates a script of generated content
+     *
+     * @param p_name script name
+     * @param p_content UTF-8 content
+     * @return script
+     */
+    @Nonnull
+    static CAslScript of( @Nonnull final String p_name, @Nonnull final byte[] p_content )
+    {
+        return new CAslScript( p_name, p_content, "" );
+    }
+
+    /**
+     * loads a single asl file
+     *
+     * @param p_file file name
+     * @return script, which has an error if the file cannot be read
+     */
+    @Nonnull
+    static CAslScript load( @Nonnull final String p_file )
+    {
+        try
+        {
+            return new CAslScript( p_file, Files.readAllBytes( Paths.get( p_file ) ), "" );
+        }
+        catch ( final IOException l_exception )
+        {
+            return new CAslScript( p_file, new byte[0], MessageFormat.format( "asl file [{0}] cannot be read: {1}", p_file, l_exception ) );
+        }
+    }
+
+    /**
+     * reads the numeric value of a tag
+     *
+     * @param p_line comment line
+     * @param p_tag tag name
+     * @param p_default default value
+     * @return value of the tag or default value if the tag does not exist or the value is not an integer
+     */
+    private static int tag( @Nonnull final String p_line, @Nonnull final String p_tag, final int p_default )
+    {
+        final int l_tag = p_line.indexOf( p_tag );
+        if ( l_tag < 0 )
+            return p_default;
+
+        int l_start = l_tag + p_tag.length();
+        while ( l_start < p_line.length() && Character.isWhitespace( p_line.charAt( l_start ) ) )
+            l_start++;
+
+        int l_end = l_start;
+        while ( l_end < p_line.length() && Character.isDigit( p_line.charAt( l_end ) ) )
+            l_end++;
+
+        if ( l_start == l_tag + p_tag.length() || l_end == l_start )
+            return p_default;
+
+        try
+        {
+            return Integer.parseInt( p_line.substring( l_start, l_end ) );
+        }
+        catch ( final NumberFormatException l_exception )
+        {
+            return p_default;
+        }
+    }
+
+    /**
+     * returns the file name
+     *
+     * @return file name
+     */
+    @Nonnull
+    String file()
+    {
+        return m_file;
+    }
+
+    /**
+     * returns the file content
+     *
+     * @return UTF-8 content
+     */
+    @Nonnull
+    byte[] content()
+    {
+        return m_content;
+    }
+
+    /**
+     * returns a new stream of the content
+     *
+     * @return input stream
+     */
+    @Nonnull
+    InputStream stream()
+    {
+        return new ByteArrayInputStream( m_content );
+    }
+
+    /**
+     * returns the number of agent cycles
+     *
+     * @return number of cycles
+     */
+    @Nonnegative
+    int iteration()
+    {
+        return m_iteration;
+    }
+
+    /**
+     * returns the number of expected test results
+     *
+     * @return number of test results
+     */
+    @Nonnegative
+    int testcount()
+    {
+        return m_testcount;
+    }
+
+    /**
+     * returns the error of loading
+     *
+     * @return error message or empty string
+     */
+    @Nonnull
+    String error()
+    {
+        return m_error;
+    }
+
+    /**
+     * checks if the script is empty
+     *
+     * @return empty flag
+     */
+    boolean empty()
+    {
+        return m_file.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_file;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * execution times of asl files, which are stored between runs
+ * to schedule the longest files first and to split the files
+ * into shards of nearly equal run time (longest processing time first),
+ * the files are stored relative to the asl root, so the times are
+ * kept between checkouts
+ */
+final class CAslTiming
+{
+    /**
+     * timing file
+     */
+    private final Path m_file;
+    /**
+     * root directory of the asl files
+     */
+    private final Path m_root;
+    /**
+     * durations in nanoseconds of the asl files
+     */
+    private final Map<String, Long> m_duration = new ConcurrentHashMap<>();
+    /**
+     * durations in nanoseconds of the asl files, which are executed on this run
+     */
+    private final Map<String, Long> m_recorded = new ConcurrentHashMap<>();
+    /**
+     * index of the shard
+     */
+    private final int m_shard;
+    /**
+     * number of shards
+     */
+    private final int m_shards;
+    /**
+     * id of the run, which tags the shard files
+     */
+    private final String m_run;
+
+    /**
+     * ctor
+     *
+     * @param p_file timing file
+     * @param p_root root directory of the asl files
+     * @param p_shard index of the shard
+     * @param p_shards number of shards
+     * @param p_run id of the run, which is equal on all shards of a run
+     */
+    CAslTiming( @Nonnull final Path p_file, @Nonnull final Path p_root, @Nonnegative final int p_shard, @Nonnegative final int p_shards,
+                @Nonnull final String p_run )
+    {
+        m_file = p_file;
+        m_root = p_root.toAbsolutePath().normalize();
+        m_shard = p_shard;
+        m_shards = p_shards;
+        m_run = p_run;
+
+        try
+        {
+            this.stale();
+        }
+        catch ( final IOException l_exception )
+        {
+            // shard files of other runs are removed on the next run
+        }
+
+        try
+        {
+            m_duration.putAll( read( m_file ) );
+        }
+        catch ( final IOException | NumberFormatException l_exception )
+        {
+            // a broken timing file is ignored and will be overwritten on the next store
+            m_duration.clear();
+        }
+    }
+
+    /**
+     * records the duration of an asl file
+     *
+     * @param p_file asl file
+     * @param p_duration duration in nanoseconds
+     */
+    void record( @Nonnull final String p_file, @Nonnegative final long p_duration )
+    {
+        m_recorded.put( this.key( p_file ), p_duration );
+    }
+
+    /**
+     * writes the durations, without shards all durations are written into the timing file,
+     * with shards the timing file is not changed during the run, so all shards are scheduled
+     * on the same durations, each shard writes its durations into a shard file and the last
+     * finished shard of the run merges the shard files into the timing file
+     *
+     * @throws IOException on io error
+     */
+    void store() throws IOException
+    {
+        if ( m_shards < 2 )
+        {
+            final Map<String, Long> l_duration = new HashMap<>( m_duration );
+            l_duration.putAll( m_recorded );
+            write( m_file, l_duration );
+            return;
+        }
+
+        write( this.shardfile( m_shard ), m_recorded );
+
+        final List<Path> l_files = IntStream.range( 0, m_shards ).mapToObj( this::shardfile ).collect( Collectors.toList() );
+        if ( !l_files.stream().allMatch( Files::isRegularFile ) )
+            return;
+
+        final Map<String, Long> l_duration = new HashMap<>( m_duration );
+        for ( final Path l_file : l_files )
+            l_duration.putAll( read( l_file ) );
+
+        write( m_file, l_duration );
+        for ( final Path l_file : l_files )
+            Files.deleteIfExists( l_file );
+    }
+
+    /**
+     * orders the files longest-first and returns the files of one shard,
+     * files without recorded duration are scheduled first, so they are
+     * measured on this run
+     *
+     * @param p_files asl files
+     * @return files of the shard in longest-first order
+     */
+    @Nonnull
+    List<String> schedule( @Nonnull final Collection<String> p_files )
+    {
+        final List<String> l_files = p_files.stream()
+                                            .sorted( Comparator.comparingLong( this::duration ).reversed() )
+                                            .collect( Collectors.toList() );
+        if ( m_shards < 2 )
+            return l_files;
+
+        // greedy bin-packing, each file is assigned to the shard with the lowest load,
+        // files without duration are weighted with the average duration
+        final long l_average = (long) m_duration.values().stream().mapToLong( i -> i ).average().orElse( 1 );
+        final long[] l_load = new long[m_shards];
+        final List<String> l_shard = new ArrayList<>();
+
+        for ( final String i : l_files )
+        {
+            final int l_index = IntStream.range( 0, m_shards )
+                                         .boxed()
+                                         .min( Comparator.comparingLong( j -> l_load[j] ) )
+                                         .orElse( 0 );
+
+            l_load[l_index] += Math.max( 1, m_duration.getOrDefault( this.key( i ), l_average ) );
+            if ( l_index == m_shard )
+                l_shard.add( i );
+        }
+
+        return l_shard;
+    }
+
+    /**
+     * returns the recorded duration of a file, for unknown files
+     * the maximum is used
+     *
+     * @param p_file asl file
+     * @return duration in nanoseconds
+     */
+    private long duration( @Nonnull final String p_file )
+    {
+        final Long l_duration = m_duration.get( this.key( p_file ) );
+        return Objects.isNull( l_duration ) ? Long.MAX_VALUE : l_duration;
+    }
+
+    /**
+     * returns the key of an asl file, which is the path relative to the root
+     *
+     * @param p_file asl file
+     * @return key
+     */
+    @Nonnull
+    private String key( @Nonnull final String p_file )
+    {
+        final Path l_file = Paths.get( p_file ).toAbsolutePath().normalize();
+        return l_file.startsWith( m_root )
+               ? m_root.relativize( l_file ).toString().replace( File.separatorChar, '/' )
+               : p_file;
+    }
+
+    /**
+     * returns the file of a shard
+     *
+     * @param p_shard index of the shard
+     * @return shard file
+     */
+    @Nonnull
+    private Path shardfile( @Nonnegative final int p_shard )
+    {
+        return m_file.resolveSibling( m_file.getFileName() + "." + m_run + "." + p_shard );
+    }
+
+    /**
+     * removes the shard files of other runs, e.g. of an aborted run,
+     * so they are not merged with the durations of this run
+     *
+     * @throws IOException on io error
+     */
+    private void stale() throws IOException
+    {
+        final Path l_directory = m_file.toAbsolutePath().getParent();
+        final String l_prefix = m_file.getFileName() + ".";
+
+        try
+        (
+            final DirectoryStream<Path> l_files = Files.newDirectoryStream( l_directory, m_file.getFileName() + ".*" )
+        )
+        {
+            for ( final Path l_file : l_files )
+                if ( !l_file.getFileName().toString().startsWith( l_prefix + m_run + "." ) )
+                    Files.deleteIfExists( l_file );
+        }
+    }
+
+    /**
+     * reads the durations of a timing file
+     *
+     * @param p_file timing file
+     * @return durations in nanoseconds, empty if the file does not exist
+     * @throws IOException on io error
+     */
+    @Nonnull
+    private static Map<String, Long> read( @Nonnull final Path p_file ) throws IOException
+    {
+        final Map<String, Long> l_duration = new HashMap<>();
+        if ( !Files.isRegularFile( p_file ) )
+            return l_duration;
+
+        try
+        (
+            final Reader l_reader = Files.newBufferedReader( p_file, StandardCharsets.UTF_8 )
+        )
+        {
+            final Properties l_property = new Properties();
+            l_property.load( l_reader );
+            l_property.forEach( ( k, v ) -> l_duration.put( k.toString(), Long.parseLong( v.toString() ) ) );
+        }
+
+        return l_duration;
+    }
+
+    /**
+     * writes durations into a timing file, the file is replaced
+     * atomically, so a concurrent reader never gets a partial file
+     *
+     * @param p_file timing file
+     * @param p_duration durations in nanoseconds
+     * @throws IOException on io error
+     */
+    private static void write( @Nonnull final Path p_file, @Nonnull final Map<String, Long> p_duration ) throws IOException
+    {
+        final Properties l_property = new Properties();
+        p_duration.forEach( ( k, v ) -> l_property.setProperty( k, v.toString() ) );
+
+        final Path l_temporary = Files.createTempFile( p_file.toAbsolutePath().getParent(), p_file.getFileName().toString(), ".tmp" );
+        try
+        (
+            final Writer l_writer = Files.newBufferedWriter( l_temporary, StandardCharsets.UTF_8 )
+        )
+        {
+            l_property.store( l_writer, "asl execution times in nanoseconds" );
+        }
+
+        Files.move( l_temporary, p_file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+}
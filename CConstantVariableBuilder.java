@@ -0,0 +1,154 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.language.execution.instantiable.IInstantiable;
+import org.lightjason.agentspeak.language.variable.CConstant;
+import org.lightjason.agentspeak.language.variable.IVariable;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * variable builder with immutable constants, which are created once
+ * and shared across all plan instantiations, constants of the generator
+ * are shared by all agents, constants of an agent are created on the
+ * first instantiation of the agent, variables, which are not constant,
+ * are created by a delegated variable builder on each instantiation
+ */
+public final class CConstantVariableBuilder implements IVariableBuilder
+{
+    /**
+     * constants of the generator
+     */
+    private final List<IVariable<?>> m_constants = new CopyOnWriteArrayList<>();
+    /**
+     * value functions of the agent constants
+     */
+    private final Map<String, Function<IAgent<?>, ?>> m_agentconstants = Collections.synchronizedMap( new LinkedHashMap<>() );
+    /**
+     * constants of each agent, agents are weakly referenced
+     */
+    private final Map<IAgent<?>, List<IVariable<?>>> m_agents = Collections.synchronizedMap( new WeakHashMap<>() );
+    /**
+     * builder of the variables, which are not constant
+     */
+    private final IVariableBuilder m_variables;
+
+    /**
+     * ctor
+     */
+    public CConstantVariableBuilder()
+    {
+        this( IVariableBuilder.EMPTY );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_variables builder of the variables, which are not constant
+     */
+    public CConstantVariableBuilder( @Nonnull final IVariableBuilder p_variables )
+    {
+        m_variables = p_variables;
+    }
+
+    /**
+     * declares a constant of the generator
+     *
+     * @param p_name variable name
+     * @param p_value value
+     * @return self reference
+     */
+    @Nonnull
+    public CConstantVariableBuilder constant( @Nonnull final String p_name, @Nonnull final Object p_value )
+    {
+        m_constants.add( new CConstant<>( p_name, p_value ) );
+        return this;
+    }
+
+    /**
+     * declares a constant of each agent
+     *
+     * @param p_name variable name
+     * @param p_value value function of the agent, which is called once for each agent
+     * @return self reference
+     */
+    @Nonnull
+    public CConstantVariableBuilder constant( @Nonnull final String p_name, @Nonnull final Function<IAgent<?>, ?> p_value )
+    {
+        m_agentconstants.put( p_name, p_value );
+        m_agents.clear();
+        return this;
+    }
+
+    @Override
+    public Stream<IVariable<?>> apply( @Nonnull final IAgent<?> p_agent, @Nonnull final IInstantiable p_instance )
+    {
+        return Stream.of(
+            m_constants.stream(),
+            m_agentconstants.isEmpty() ? Stream.<IVariable<?>>empty() : this.agentconstants( p_agent ).stream(),
+            m_variables.apply( p_agent, p_instance )
+        ).flatMap( i -> i );
+    }
+
+    /**
+     * returns the constants of an agent
+     *
+     * @param p_agent agent
+     * @return constants
+     */
+    @Nonnull
+    private List<IVariable<?>> agentconstants( @Nonnull final IAgent<?> p_agent )
+    {
+        final List<IVariable<?>> l_constants = m_agents.get( p_agent );
+        if ( Objects.nonNull( l_constants ) )
+            return l_constants;
+
+        synchronized ( m_agentconstants )
+        {
+            return m_agents.computeIfAbsent(
+                p_agent,
+                i -> Collections.unmodifiableList(
+                    m_agentconstants.entrySet()
+                                    .stream()
+                                    .<IVariable<?>>map( j -> new CConstant<>( j.getKey(), j.getValue().apply( i ) ) )
+                                    .collect( Collectors.toList() )
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+
+/**
+ * watchdog of agent cycles, each cycle runs on a worker thread and
+ * is timed against a threshold, a slow cycle prints the thread dumps
+ * and the running plans of the agent, a cycle which exceeds the
+ * timeout is cancelled and fails the test
+ */
+final class CCycleWatchdog implements AutoCloseable
+{
+    /**
+     * threshold of slow cycles in milliseconds
+     */
+    private final long m_threshold;
+    /**
+     * hard timeout of cycles in milliseconds
+     */
+    private final long m_timeout;
+    /**
+     * executor of the cycles
+     */
+    private final ExecutorService m_executor;
+
+    /**
+     * ctor
+     *
+     * @param p_threshold threshold of slow cycles in milliseconds
+     * @param p_timeout hard timeout of cycles in milliseconds
+     */
+    CCycleWatchdog( @Nonnegative final long p_threshold, @Nonnegative final long p_timeout )
+    {
+        this( p_threshold, p_timeout, false );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_threshold threshold of slow cycles in milliseconds
+     * @param p_timeout hard timeout of cycles in milliseconds
+     * @param p_virtual run the cycles on virtual threads, if virtual threads are supported
+     */
+    CCycleWatchdog( @Nonnegative final long p_threshold, @Nonnegative final long p_timeout, final boolean p_virtual )
+    {
+        m_threshold = Math.min( p_threshold, p_timeout );
+        m_timeout = p_timeout;
+        m_executor = p_virtual
+                     ? CThreadScheduler.virtualexecutor().orElseGet( CCycleWatchdog::platformexecutor )
+                     : platformexecutor();
+    }
+
+    /**
+     * creates the executor of platform threads
+     *
+     * @return executor
+     */
+    @Nonnull
+    private static ExecutorService platformexecutor()
+    {
+        return Executors.newCachedThreadPool( CThreadScheduler.daemon( "agent-cycle" ) );
+    }
+
+    /**
+     * execute agent cycle
+     *
+     * @param p_agent agent
+     * @return execute successful flag
+     */
+    boolean cycle( @Nonnull final IAgent<?> p_agent )
+    {
+        return this.cycle( p_agent, () -> CFlightRecorder.call( p_agent ) );
+    }
+
+    /**
+     * execute agent cycle with a cycle call
+     *
+     * @param p_agent agent
+     * @param p_cycle cycle call of the agent
+     * @return execute successful flag
+     */
+    boolean cycle( @Nonnull final IAgent<?> p_agent, @Nonnull final Callable<?> p_cycle )
+    {
+        final AtomicReference<Thread> l_thread = new AtomicReference<>();
+        final long l_start = System.nanoTime();
+        final Future<?> l_future = m_executor.submit( () ->
+        {
+            l_thread.set( Thread.currentThread() );
+            return p_cycle.call();
+        } );
+
+        try
+        {
+            try
+            {
+                l_future.get( m_threshold, TimeUnit.MILLISECONDS );
+                return true;
+            }
+            catch ( final TimeoutException l_exception )
+            {
+                System.err.println( MessageFormat.format(
+                    "agent cycle is slower than {0} ms\n{1}", m_threshold, diagnostic( p_agent, l_thread.get() )
+                ) );
+            }
+
+            try
+            {
+                l_future.get( m_timeout - TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - l_start ), TimeUnit.MILLISECONDS );
+                return true;
+            }
+            catch ( final TimeoutException l_exception )
+            {
+                final String l_diagnostic = diagnostic( p_agent, l_thread.get() );
+                l_future.cancel( true );
+                Assertions.fail( MessageFormat.format( "agent cycle exceeds the timeout of {0} ms\n{1}", m_timeout, l_diagnostic ) );
+                return false;
+            }
+        }
+        catch ( final ExecutionException l_exception )
+        {
+            // errors of the cycle thread (e.g. assertion errors) are passed to the test thread with their message and location,
+            // exceptions are logged and count as a failed cycle like on a direct cycle call
+            if ( l_exception.getCause() instanceof Error )
+                throw (Error) l_exception.getCause();
+
+            l_exception.getCause().printStackTrace();
+            return false;
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            l_future.cancel( true );
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * builds the diagnostic of a cycle with the running plans of the agent,
+     * the stack of the cycle thread and all thread dumps, the thread dump does
+     * not contain virtual threads, so the stack of the cycle thread is read from the thread
+     *
+     * @param p_agent agent
+     * @param p_thread cycle thread or null
+     * @return diagnostic message
+     */
+    @Nonnull
+    private static String diagnostic( @Nonnull final IAgent<?> p_agent, final Thread p_thread )
+    {
+        final ThreadInfo[] l_threads = ManagementFactory.getThreadMXBean().dumpAllThreads( true, true );
+
+        return MessageFormat.format(
+            "running plans: {0}\ncycle thread:\n{1}\nthread dump:\n{2}",
+            p_agent.runningplans(),
+            Objects.isNull( p_thread ) ? "" : format( p_thread ),
+            Arrays.stream( l_threads )
+                  .map( CCycleWatchdog::format )
+                  .collect( Collectors.joining( "\n" ) )
+        );
+    }
+
+    /**
+     * formats a thread with its current stack trace
+     *
+     * @param p_thread thread
+     * @return formatted thread
+     */
+    @Nonnull
+    private static String format( @Nonnull final Thread p_thread )
+    {
+        return MessageFormat.format(
+            "\"{0}\" id={1} {2}\n{3}\n",
+            p_thread.getName(),
+            Long.toString( p_thread.getId() ),
+            p_thread.getState(),
+            stack( p_thread.getStackTrace() )
+        );
+    }
+
+    /**
+     * formats a thread with the full stack trace,
+     * because ThreadInfo::toString cuts the stack
+     *
+     * @param p_thread thread info
+     * @return formatted thread
+     */
+    @Nonnull
+    private static String format( @Nonnull final ThreadInfo p_thread )
+    {
+        return MessageFormat.format(
+            "\"{0}\" id={1} {2}{3}\n{4}\n",
+            p_thread.getThreadName(),
+            Long.toString( p_thread.getThreadId() ),
+            p_thread.getThreadState(),
+            Objects.isNull( p_thread.getLockName() )
+            ? ""
+            : MessageFormat.format( " on {0} owned by \"{1}\"", p_thread.getLockName(), p_thread.getLockOwnerName() ),
+            stack( p_thread.getStackTrace() )
+        );
+    }
+
+    /**
+     * formats a stack trace
+     *
+     * @param p_stack stack trace
+     * @return formatted stack trace
+     */
+    @Nonnull
+    private static String stack( @Nonnull final StackTraceElement[] p_stack )
+    {
+        return Arrays.stream( p_stack )
+                     .map( i -> "\tat " + i )
+                     .collect( Collectors.joining( "\n" ) );
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+
+/**
+ * scheduler with weighted fair queuing of agent cycles, the cpu time of each
+ * cycle is measured and the agent with the lowest virtual time (cpu time divided
+ * by the weight of the agent) is cycled next, an agent, which exceeds its cpu
+ * quota within a period, is throttled until the period ends, the latency between
+ * the agent is ready and the cycle starts is recorded for each agent, the cpu
+ * time is measured on the cycle thread, so plans which run on other threads
+ * are not accounted
+ */
+public final class CFairShareScheduler implements IAgentScheduler
+{
+    /**
+     * thread bean for cpu time
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    /**
+     * number of agents with the highest latency in the report
+     */
+    private static final int REPORTSIZE = 10;
+    /**
+     * cycle call of an agent
+     */
+    private final Predicate<IAgent<?>> m_cycle;
+    /**
+     * quota period in nanoseconds
+     */
+    private final long m_period;
+    /**
+     * number of workers
+     */
+    private final int m_workers;
+    /**
+     * executor of the workers
+     */
+    private final ExecutorService m_executor;
+    /**
+     * entries of the agents
+     */
+    private final Map<IAgent<?>, CEntry> m_entries = Collections.synchronizedMap( new IdentityHashMap<>() );
+
+    /**
+     * ctor
+     *
+     * @param p_workers number of workers
+     * @param p_period quota period in milliseconds
+     * @param p_cycle cycle call of an agent
+     */
+    public CFairShareScheduler( @Nonnegative final int p_workers, @Nonnegative final long p_period, @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        m_cycle = p_cycle;
+        m_period = TimeUnit.MILLISECONDS.toNanos( p_period );
+        m_workers = Math.max( 1, p_workers );
+        m_executor = Executors.newFixedThreadPool( m_workers, CThreadScheduler.daemon( "agent-fairshare" ) );
+    }
+
+    /**
+     * sets the weight of an agent, an agent with a
+     * higher weight gets a higher share of the cpu time
+     *
+     * @param p_agent agent
+     * @param p_weight weight
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CFairShareScheduler priority( @Nonnull final IAgent<?> p_agent, final double p_weight )
+    {
+        this.entry( p_agent ).m_weight = p_weight > 0 ? p_weight : 1;
+        return this;
+    }
+
+    /**
+     * sets the cpu quota of an agent within a period
+     *
+     * @param p_agent agent
+     * @param p_quota cpu time in milliseconds
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CFairShareScheduler quota( @Nonnull final IAgent<?> p_agent, @Nonnegative final double p_quota )
+    {
+        this.entry( p_agent ).m_quota = (long) ( p_quota * 1e6 );
+        return this;
+    }
+
+    /**
+     * returns the mean latency of an agent
+     *
+     * @param p_agent agent
+     * @return latency in nanoseconds
+     */
+    public double latency( @Nonnull final IAgent<?> p_agent )
+    {
+        return this.entry( p_agent ).latency();
+    }
+
+    /**
+     * returns the latency fairness (jain's index of the mean latency of the agents)
+     *
+     * @return index between 1 / number of agents and 1 (all latencies are equal)
+     */
+    public double fairness()
+    {
+        synchronized ( m_entries )
+        {
+            return jain( m_entries.values().stream().mapToDouble( CEntry::latency ) );
+        }
+    }
+
+    /**
+     * returns the report with the fairness metrics and the agents with the highest latency
+     *
+     * @return report
+     */
+    @Nonnull
+    public String report()
+    {
+        final List<CEntry> l_entries;
+        synchronized ( m_entries )
+        {
+            l_entries = m_entries.values().stream().sorted( Comparator.comparingDouble( CEntry::latency ).reversed() ).collect( Collectors.toList() );
+        }
+
+        return MessageFormat.format(
+            "agents: {0}\tcycles: {1}\tlatency fairness: {2,number,#.###}\tweighted cpu fairness: {3,number,#.###}\n",
+            l_entries.size(),
+            l_entries.stream().mapToLong( i -> i.m_cycles ).sum(),
+            jain( l_entries.stream().mapToDouble( CEntry::latency ) ),
+            jain( l_entries.stream().mapToDouble( i -> i.m_cpu / i.m_weight ) )
+        )
+        + MessageFormat.format( "{0}\t{1}\t{2}\t{3}\t{4}\t{5}\n", "agent", "weight", "cycles", "cpu ms", "latency us", "max latency us" )
+        + l_entries.stream()
+                   .limit( REPORTSIZE )
+                   .map( i -> MessageFormat.format(
+                       "{0}\t{1,number,#.##}\t{2}\t{3,number,#.###}\t{4,number,#}\t{5,number,#}",
+                       CFlightRecorder.identifier( i.m_agent ),
+                       i.m_weight,
+                       i.m_cycles,
+                       i.m_cpu / 1e6,
+                       i.latency() / 1e3,
+                       i.m_latencymaximum / 1e3
+                   ) )
+                   .collect( Collectors.joining( "\n" ) );
+    }
+
+    /**
+     * jain's fairness index
+     *
+     * @param p_values values
+     * @return index between 1 / number of values and 1 (all values are equal)
+     */
+    static double jain( @Nonnull final DoubleStream p_values )
+    {
+        final double[] l_values = p_values.toArray();
+        final double l_sum = DoubleStream.of( l_values ).sum();
+        final double l_square = DoubleStream.of( l_values ).map( i -> i * i ).sum();
+        return l_square == 0 ? 1 : l_sum * l_sum / ( l_values.length * l_square );
+    }
+
+    @Override
+    public long execute( @Nonnull final Collection<? extends IAgent<?>> p_agents, @Nonnegative final int p_cycles ) throws InterruptedException
+    {
+        if ( p_agents.isEmpty() || p_cycles == 0 )
+            return 0;
+
+        final PriorityBlockingQueue<CEntry> l_ready = new PriorityBlockingQueue<>(
+            p_agents.size(), Comparator.comparingDouble( ( CEntry i ) -> i.m_virtualtime )
+        );
+        final DelayQueue<CEntry> l_throttled = new DelayQueue<>();
+        final AtomicLong l_pending = new AtomicLong( (long) p_agents.size() * p_cycles );
+        final LongAdder l_cycles = new LongAdder();
+        final AtomicReference<Throwable> l_error = new AtomicReference<>();
+
+        // new agents start at the lowest virtual time, so they do not get a higher share than the existing agents
+        final List<CEntry> l_entries = p_agents.stream().map( this::entry ).collect( Collectors.toList() );
+        final double l_virtualtime = l_entries.stream().filter( i -> i.m_cycles > 0 ).mapToDouble( i -> i.m_virtualtime ).min().orElse( 0 );
+        final long l_now = System.nanoTime();
+        l_entries.forEach( i ->
+        {
+            i.m_virtualtime = Math.max( i.m_virtualtime, l_virtualtime );
+            i.m_remaining = p_cycles;
+            i.m_ready = l_now;
+            l_ready.add( i );
+        } );
+
+        final List<Future<?>> l_futures = IntStream.range( 0, m_workers )
+                                                   .mapToObj( i -> m_executor.submit( () ->
+                                                   {
+                                                       this.work( l_ready, l_throttled, l_pending, l_cycles, l_error );
+                                                       return null;
+                                                   } ) )
+                                                   .collect( Collectors.toList() );
+
+        try
+        {
+            for ( final Future<?> l_future : l_futures )
+                l_future.get();
+        }
+        catch ( final ExecutionException l_exception )
+        {
+            l_futures.forEach( i -> i.cancel( true ) );
+            throw new IllegalStateException( l_exception.getCause() );
+        }
+
+        if ( Objects.nonNull( l_error.get() ) )
+            throw new IllegalStateException( l_error.get() );
+
+        return l_cycles.sum();
+    }
+
+    @Override
+    public void close()
+    {
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * worker loop, which cycles the agent with the lowest virtual time,
+     * the first error of a cycle stops all workers
+     *
+     * @param p_ready ready agents
+     * @param p_throttled agents, which exceed their quota
+     * @param p_pending number of pending cycles
+     * @param p_cycles number of successful cycles
+     * @param p_error first error of a cycle
+     * @throws InterruptedException on interrupt
+     */
+    private void work( @Nonnull final PriorityBlockingQueue<CEntry> p_ready, @Nonnull final DelayQueue<CEntry> p_throttled,
+                       @Nonnull final AtomicLong p_pending, @Nonnull final LongAdder p_cycles,
+                       @Nonnull final AtomicReference<Throwable> p_error ) throws InterruptedException
+    {
+        while ( p_pending.get() > 0 && Objects.isNull( p_error.get() ) )
+        {
+            p_throttled.drainTo( p_ready );
+            final CEntry l_entry = p_ready.poll( 1, TimeUnit.MILLISECONDS );
+            if ( l_entry == null )
+                continue;
+
+            final long l_start = System.nanoTime();
+            if ( l_entry.throttled( l_start ) )
+            {
+                p_throttled.add( l_entry );
+                continue;
+            }
+
+            final long l_cpu = cputime();
+            try
+            {
+                if ( m_cycle.test( l_entry.m_agent ) )
+                    p_cycles.increment();
+            }
+            catch ( final Throwable l_exception )
+            {
+                p_error.compareAndSet( null, l_exception );
+                return;
+            }
+            l_entry.account( l_start, cputime() - l_cpu );
+            p_pending.decrementAndGet();
+
+            if ( --l_entry.m_remaining > 0 )
+            {
+                l_entry.m_ready = System.nanoTime();
+                p_ready.add( l_entry );
+            }
+        }
+    }
+
+    /**
+     * returns the entry of an agent
+     *
+     * @param p_agent agent
+     * @return entry
+     */
+    @Nonnull
+    private CEntry entry( @Nonnull final IAgent<?> p_agent )
+    {
+        return m_entries.computeIfAbsent( p_agent, i -> new CEntry( i, m_period ) );
+    }
+
+    /**
+     * returns the cpu time of the current thread
+     *
+     * @return cpu time in nanoseconds or zero if not supported
+     */
+    private static long cputime()
+    {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * scheduling entry of an agent, an entry is either queued
+     * or executed by one worker, times are stored in nanoseconds
+     */
+    private static final class CEntry implements Delayed
+    {
+        /**
+         * agent
+         */
+        private final IAgent<?> m_agent;
+        /**
+         * quota period
+         */
+        private final long m_period;
+        /**
+         * weight
+         */
+        private volatile double m_weight = 1;
+        /**
+         * cpu quota within a period
+         */
+        private volatile long m_quota = Long.MAX_VALUE;
+        /**
+         * virtual time
+         */
+        private double m_virtualtime;
+        /**
+         * remaining cycles
+         */
+        private int m_remaining;
+        /**
+         * time since the agent is ready
+         */
+        private long m_ready;
+        /**
+         * start of the current period, the initial period is
+         * already expired, so the first cycle starts a new period
+         */
+        private long m_periodstart;
+        /**
+         * cpu time within the current period
+         */
+        private long m_periodcpu;
+        /**
+         * number of cycles
+         */
+        private long m_cycles;
+        /**
+         * cpu time
+         */
+        private long m_cpu;
+        /**
+         * sum of the latencies
+         */
+        private long m_latency;
+        /**
+         * maximal latency
+         */
+        private long m_latencymaximum;
+
+        /**
+         * ctor
+         *
+         * @param p_agent agent
+         * @param p_period quota period
+         */
+        CEntry( @Nonnull final IAgent<?> p_agent, final long p_period )
+        {
+            m_agent = p_agent;
+            m_period = p_period;
+            m_periodstart = System.nanoTime() - p_period;
+        }
+
+        /**
+         * checks if the agent exceeds its quota within the current period
+         *
+         * @param p_now current time
+         * @return throttle flag
+         */
+        boolean throttled( final long p_now )
+        {
+            return p_now - m_periodstart < m_period && m_periodcpu >= m_quota;
+        }
+
+        /**
+         * accounts a cycle
+         *
+         * @param p_start start time of the cycle
+         * @param p_cpu cpu time of the cycle
+         */
+        void account( final long p_start, final long p_cpu )
+        {
+            if ( p_start - m_periodstart >= m_period )
+            {
+                m_periodstart = p_start;
+                m_periodcpu = 0;
+            }
+
+            m_periodcpu += p_cpu;
+            m_cpu += p_cpu;
+            m_virtualtime += p_cpu / m_weight;
+            m_cycles++;
+
+            m_latency += p_start - m_ready;
+            m_latencymaximum = Math.max( m_latencymaximum, p_start - m_ready );
+        }
+
+        /**
+         * returns the mean latency
+         *
+         * @return latency
+         */
+        double latency()
+        {
+            return m_cycles == 0 ? 0 : (double) m_latency / m_cycles;
+        }
+
+        @Override
+        public long getDelay( @Nonnull final TimeUnit p_unit )
+        {
+            return p_unit.convert( m_periodstart + m_period - System.nanoTime(), TimeUnit.NANOSECONDS );
+        }
+
+        @Override
+        public int compareTo( @Nonnull final Delayed p_delayed )
+        {
+            return Long.compare( this.getDelay( TimeUnit.NANOSECONDS ), p_delayed.getDelay( TimeUnit.NANOSECONDS ) );
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * java flight recorder events of agent cycles, action executions
+ * and plan instantiations, the events can be correlated in
+ * mission control by the agent identifier and the thread
+ */
+public final class CFlightRecorder
+{
+    /**
+     * ctor
+     */
+    private CFlightRecorder()
+    {
+    }
+
+    /**
+     * executes an agent cycle within a cycle event
+     *
+     * @param p_agent agent
+     * @return agent
+     * @throws Exception on execution error
+     */
+    public static IAgent<?> call( @Nonnull final IAgent<?> p_agent ) throws Exception
+    {
+        final CAgentCycleEvent l_event = new CAgentCycleEvent();
+        l_event.begin();
+        try
+        {
+            return p_agent.call();
+        }
+        finally
+        {
+            l_event.end();
+            if ( l_event.shouldCommit() )
+            {
+                l_event.m_agent = identifier( p_agent );
+                l_event.commit();
+            }
+        }
+    }
+
+    /**
+     * decorates an action with an action event
+     *
+     * @param p_action action
+     * @return decorated action
+     */
+    @Nonnull
+    public static IAction action( @Nonnull final IAction p_action )
+    {
+        return new CRecordingAction( p_action );
+    }
+
+    /**
+     * decorates a variable builder with a plan instantiation event
+     *
+     * @param p_builder variable builder
+     * @return decorated variable builder
+     */
+    @Nonnull
+    public static IVariableBuilder variablebuilder( @Nonnull final IVariableBuilder p_builder )
+    {
+        return ( p_agent, p_instance ) ->
+        {
+            final CPlanInstantiationEvent l_event = new CPlanInstantiationEvent();
+            if ( l_event.isEnabled() )
+            {
+                l_event.m_agent = identifier( p_agent );
+                l_event.m_plan = p_instance.literal().toString();
+                l_event.commit();
+            }
+            return p_builder.apply( p_agent, p_instance );
+        };
+    }
+
+    /**
+     * returns the identifier of an agent
+     *
+     * @param p_agent agent
+     * @return identifier
+     */
+    @Nonnull
+    static String identifier( @Nonnull final IAgent<?> p_agent )
+    {
+        return Integer.toHexString( System.identityHashCode( p_agent ) );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * action decorator with action events
+     */
+    private static final class CRecordingAction extends IBaseActionDecorator
+    {
+        /**
+         * serial id
+         */
+        private static final long serialVersionUID = 3308915417036474263L;
+
+        /**
+         * ctor
+         *
+         * @param p_action decorated action
+         */
+        CRecordingAction( @Nonnull final IAction p_action )
+        {
+            super( p_action );
+        }
+
+        @Nonnull
+        @Override
+        public Stream<IFuzzyValue<?>> execute( final boolean p_parallel, @Nonnull final IContext p_context,
+                                               @Nonnull final List<ITerm> p_argument, @Nonnull final List<ITerm> p_return )
+        {
+            final CActionEvent l_event = new CActionEvent();
+            l_event.begin();
+            try
+            {
+                return m_action.execute( p_parallel, p_context, p_argument, p_return );
+            }
+            finally
+            {
+                l_event.end();
+                if ( l_event.shouldCommit() )
+                {
+                    l_event.m_agent = identifier( p_context.agent() );
+                    l_event.m_action = m_action.name().toString();
+                    l_event.m_parallel = p_parallel;
+                    l_event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * agent cycle event
+     */
+    @Name( "org.lightjason.agentspeak.AgentCycle" )
+    @Label( "Agent Cycle" )
+    @Category( { "LightJason", "Agent" } )
+    @Description( "execution of an agent cycle" )
+    public static final class CAgentCycleEvent extends Event
+    {
+        /**
+         * agent identifier
+         */
+        @Name( "agent" )
+        @Label( "Agent" )
+        private String m_agent;
+    }
+
+    /**
+     * action execution event
+     */
+    @Name( "org.lightjason.agentspeak.Action" )
+    @Label( "Action Execution" )
+    @Category( { "LightJason", "Agent" } )
+    @Description( "execution of an action" )
+    public static final class CActionEvent extends Event
+    {
+        /**
+         * agent identifier
+         */
+        @Name( "agent" )
+        @Label( "Agent" )
+        private String m_agent;
+        /**
+         * action name
+         */
+        @Name( "action" )
+        @Label( "Action" )
+        private String m_action;
+        /**
+         * parallel execution
+         */
+        @Name( "parallel" )
+        @Label( "Parallel" )
+        private boolean m_parallel;
+    }
+
+    /**
+     * plan instantiation event
+     */
+    @Name( "org.lightjason.agentspeak.PlanInstantiation" )
+    @Label( "Plan Instantiation" )
+    @Category( { "LightJason", "Agent" } )
+    @Description( "instantiation of a plan or rule" )
+    public static final class CPlanInstantiationEvent extends Event
+    {
+        /**
+         * agent identifier
+         */
+        @Name( "agent" )
+        @Label( "Agent" )
+        private String m_agent;
+        /**
+         * plan literal
+         */
+        @Name( "plan" )
+        @Label( "Plan" )
+        private String m_plan;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.text.MessageFormat;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * garbage collection report of asl scripts, the collector counts, collection
+ * times and heap pool usage are read before and after the cycles of a script,
+ * the collector beans are jvm-wide, so scripts which run in parallel share
+ * the collections and the figures are labeled as jvm values, scripts with
+ * less cycles than the minimum are not reported, because a few cycles do
+ * not give a collection figure above the noise
+ */
+final class CGarbageCollectionReport
+{
+    /**
+     * report entries of the scripts
+     */
+    private final Map<String, CEntry> m_entries = new ConcurrentHashMap<>();
+    /**
+     * minimal number of cycles of a reported script
+     */
+    private final long m_cycles;
+
+    /**
+     * ctor
+     *
+     * @param p_cycles minimal number of cycles of a reported script
+     */
+    CGarbageCollectionReport( @Nonnegative final long p_cycles )
+    {
+        m_cycles = p_cycles;
+    }
+
+    /**
+     * creates a snapshot of the collectors
+     *
+     * @return snapshot
+     */
+    @Nonnull
+    CSnapshot snapshot()
+    {
+        return new CSnapshot();
+    }
+
+    /**
+     * records the garbage collection of a script
+     *
+     * @param p_script script name
+     * @param p_cycles number of agent cycles
+     * @param p_start snapshot before the cycles
+     */
+    void record( @Nonnull final String p_script, @Nonnegative final long p_cycles, @Nonnull final CSnapshot p_start )
+    {
+        if ( p_cycles < m_cycles )
+            return;
+
+        final CSnapshot l_end = new CSnapshot();
+        m_entries.put(
+            p_script,
+            new CEntry( p_cycles, l_end.m_count - p_start.m_count, l_end.m_time - p_start.m_time, l_end.m_heap - p_start.m_heap )
+        );
+    }
+
+    /**
+     * returns the report ordered by the collection time, the collection
+     * figures are jvm-wide during the cycles of the script
+     *
+     * @return report table
+     */
+    @Nonnull
+    String report()
+    {
+        return MessageFormat.format( "{0}\t{1}\t{2}\t{3}\t{4}\t{5}\n", "script", "cycles", "jvm collections", "jvm collections/1000 cycles", "jvm pause ms", "heap delta kB" )
+               + m_entries.entrySet()
+                          .stream()
+                          .sorted( Comparator.comparingLong( ( Map.Entry<String, CEntry> i ) -> i.getValue().m_time ).reversed() )
+                          .map( i -> MessageFormat.format(
+                              "{0}\t{1}\t{2}\t{3,number,#.##}\t{4}\t{5}",
+                              i.getKey(),
+                              i.getValue().m_cycles,
+                              i.getValue().m_count,
+                              i.getValue().m_cycles == 0 ? 0 : 1000.0 * i.getValue().m_count / i.getValue().m_cycles,
+                              i.getValue().m_time,
+                              i.getValue().m_heap / 1024
+                          ) )
+                          .collect( Collectors.joining( "\n" ) );
+    }
+
+    /**
+     * snapshot of the collectors and heap pools
+     */
+    static final class CSnapshot
+    {
+        /**
+         * number of collections
+         */
+        private final long m_count;
+        /**
+         * collection time in milliseconds
+         */
+        private final long m_time;
+        /**
+         * used bytes of the heap pools
+         */
+        private final long m_heap;
+
+        /**
+         * ctor
+         */
+        private CSnapshot()
+        {
+            m_count = ManagementFactory.getGarbageCollectorMXBeans()
+                                       .stream()
+                                       .mapToLong( GarbageCollectorMXBean::getCollectionCount )
+                                       .filter( i -> i > 0 )
+                                       .sum();
+            m_time = ManagementFactory.getGarbageCollectorMXBeans()
+                                      .stream()
+                                      .mapToLong( GarbageCollectorMXBean::getCollectionTime )
+                                      .filter( i -> i > 0 )
+                                      .sum();
+            m_heap = ManagementFactory.getMemoryPoolMXBeans()
+                                      .stream()
+                                      .filter( i -> i.getType() == MemoryType.HEAP )
+                                      .map( MemoryPoolMXBean::getUsage )
+                                      .mapToLong( MemoryUsage::getUsed )
+                                      .sum();
+        }
+    }
+
+    /**
+     * report entry
+     */
+    private static final class CEntry
+    {
+        /**
+         * number of cycles
+         */
+        private final long m_cycles;
+        /**
+         * number of collections
+         */
+        private final long m_count;
+        /**
+         * collection time in milliseconds
+         */
+        private final long m_time;
+        /**
+         * heap difference in bytes
+         */
+        private final long m_heap;
+
+        /**
+         * ctor
+         *
+         * @param p_cycles number of cycles
+         * @param p_count number of collections
+         * @param p_time collection time in milliseconds
+         * @param p_heap heap difference in bytes
+         */
+        CEntry( final long p_cycles, final long p_count, final long p_time, final long p_heap )
+        {
+            m_cycles = p_cycles;
+            m_count = p_count;
+            m_time = p_time;
+            m_heap = p_heap;
+        }
+    }
+}
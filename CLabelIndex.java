@@ -0,0 +1,253 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * index of the translation labels of each source file, a file is parsed again only
+ * if the modification time and the hash of its content are changed, the index is
+ * discarded if the version of the label extraction is changed
+ */
+final class CLabelIndex
+{
+    /**
+     * hash algorithm
+     */
+    private static final String ALGORITHM = "SHA-256";
+    /**
+     * key of the extraction version
+     */
+    private static final String VERSIONKEY = "version";
+    /**
+     * separator of the entry fields
+     */
+    private static final String FIELDSEPARATOR = ";";
+    /**
+     * separator of the labels
+     */
+    private static final String LABELSEPARATOR = ",";
+    /**
+     * index file
+     */
+    private final Path m_file;
+    /**
+     * version of the label extraction
+     */
+    private final String m_version;
+    /**
+     * entries of the source files
+     */
+    private final Map<String, CEntry> m_entries = new ConcurrentHashMap<>();
+
+    /**
+     * ctor
+     *
+     * @param p_file index file
+     * @param p_version version of the label extraction
+     */
+    CLabelIndex( @Nonnull final Path p_file, @Nonnull final String p_version )
+    {
+        m_file = p_file;
+        m_version = p_version;
+
+        if ( !Files.isRegularFile( m_file ) )
+            return;
+
+        try
+        (
+            final Reader l_reader = Files.newBufferedReader( m_file, StandardCharsets.UTF_8 )
+        )
+        {
+            final Properties l_property = new Properties();
+            l_property.load( l_reader );
+            if ( !m_version.equals( l_property.getProperty( VERSIONKEY ) ) )
+                return;
+
+            l_property.remove( VERSIONKEY );
+            l_property.forEach( ( k, v ) -> m_entries.put( k.toString(), CEntry.parse( v.toString() ) ) );
+        }
+        catch ( final IOException | RuntimeException l_exception )
+        {
+            // a broken index file forces parsing of all files
+            m_entries.clear();
+        }
+    }
+
+    /**
+     * returns the labels of a source file
+     *
+     * @param p_file source file
+     * @param p_extractor label extraction of the file content
+     * @return labels
+     * @throws IOException on io error
+     */
+    @Nonnull
+    Set<String> labels( @Nonnull final Path p_file, @Nonnull final Function<byte[], Set<String>> p_extractor ) throws IOException
+    {
+        final String l_key = p_file.toAbsolutePath().toString();
+        final long l_modified = Files.getLastModifiedTime( p_file ).toMillis();
+        final CEntry l_entry = m_entries.get( l_key );
+        if ( Objects.nonNull( l_entry ) && l_entry.m_modified == l_modified )
+            return l_entry.m_labels;
+
+        final byte[] l_content = Files.readAllBytes( p_file );
+        final String l_hash = hash( l_content );
+        final Set<String> l_labels = Objects.nonNull( l_entry ) && l_entry.m_hash.equals( l_hash )
+                                     ? l_entry.m_labels
+                                     : Collections.unmodifiableSet( p_extractor.apply( l_content ) );
+
+        m_entries.put( l_key, new CEntry( l_modified, l_hash, l_labels ) );
+        return l_labels;
+    }
+
+    /**
+     * writes the index file, entries of deleted source files are removed
+     * and the file is replaced atomically, so a concurrent reader never
+     * gets a partial index
+     *
+     * @throws IOException on io error
+     */
+    void store() throws IOException
+    {
+        m_entries.keySet().removeIf( i -> !Files.exists( Paths.get( i ) ) );
+
+        final Properties l_property = new Properties();
+        l_property.setProperty( VERSIONKEY, m_version );
+        m_entries.forEach( ( k, v ) -> l_property.setProperty( k, v.toString() ) );
+
+        final Path l_temporary = Files.createTempFile( m_file.toAbsolutePath().getParent(), m_file.getFileName().toString(), ".tmp" );
+        try
+        (
+            final Writer l_writer = Files.newBufferedWriter( l_temporary, StandardCharsets.UTF_8 )
+        )
+        {
+            l_property.store( l_writer, "translation labels of the source files" );
+        }
+
+        Files.move( l_temporary, m_file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    /**
+     * hash of a content
+     *
+     * @param p_content content
+     * @return hex string
+     */
+    @Nonnull
+    static String hash( @Nonnull final byte[] p_content )
+    {
+        try
+        {
+            return new BigInteger( 1, MessageDigest.getInstance( ALGORITHM ).digest( p_content ) ).toString( 16 );
+        }
+        catch ( final NoSuchAlgorithmException l_exception )
+        {
+            throw new IllegalStateException( l_exception );
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * index entry of a source file
+     */
+    private static final class CEntry
+    {
+        /**
+         * modification time in milliseconds
+         */
+        private final long m_modified;
+        /**
+         * content hash
+         */
+        private final String m_hash;
+        /**
+         * labels
+         */
+        private final Set<String> m_labels;
+
+        /**
+         * ctor
+         *
+         * @param p_modified modification time in milliseconds
+         * @param p_hash content hash
+         * @param p_labels labels
+         */
+        CEntry( final long p_modified, @Nonnull final String p_hash, @Nonnull final Set<String> p_labels )
+        {
+            m_modified = p_modified;
+            m_hash = p_hash;
+            m_labels = p_labels;
+        }
+
+        /**
+         * parses an entry of the index file
+         *
+         * @param p_value property value
+         * @return entry
+         */
+        @Nonnull
+        static CEntry parse( @Nonnull final String p_value )
+        {
+            final String[] l_fields = p_value.split( FIELDSEPARATOR, 3 );
+            return new CEntry(
+                Long.parseLong( l_fields[0] ),
+                l_fields[1],
+                Collections.unmodifiableSet(
+                    Arrays.stream( l_fields[2].split( LABELSEPARATOR ) )
+                          .filter( i -> !i.isEmpty() )
+                          .collect( Collectors.toSet() )
+                )
+            );
+        }
+
+        @Override
+        public String toString()
+        {
+            return m_modified + FIELDSEPARATOR + m_hash + FIELDSEPARATOR + String.join( LABELSEPARATOR, m_labels );
+        }
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.common.IPath;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.language.execution.instantiable.IInstantiable;
+import org.lightjason.agentspeak.language.execution.instantiable.plan.IPlan;
+import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * profiler of plans and rules, wall time, cpu time and action calls are
+ * attributed to the instance literals of the running plans. The time between
+ * two actions of a plan is the self time of the plan, the execution time
+ * of an action is attributed to the action frame below the plan. Each thread
+ * keeps an explicit frame stack, which the decorators push and pop: an action
+ * call of a plan on the stack pops the plans above it, because they have
+ * finished, and a plan, which is not a running plan of the agent anymore,
+ * is popped with the next event. Rules are not running plans, so a rule frame
+ * is popped by the next action of its plan or the next plan instantiation.
+ * Each plan instantiation is a frame of its own, if the variable builder is
+ * decorated by the profiler, otherwise the frames are created by the action
+ * calls. The result is exported in the collapsed-stack format of flame graphs
+ */
+public final class CPlanProfiler
+{
+    /**
+     * root frame of the agent cycle
+     */
+    private static final String ROOT = "cycle";
+    /**
+     * thread bean for cpu time
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    /**
+     * frames with the collapsed stack as key
+     */
+    private final Map<String, CFrame> m_frames = new ConcurrentHashMap<>();
+    /**
+     * plan stack of each thread
+     */
+    private final ThreadLocal<CStack> m_stack = ThreadLocal.withInitial( CStack::new );
+
+    /**
+     * executes an agent cycle, the plan stack of the thread starts empty
+     * and the time outside of actions is attributed to the running plan
+     *
+     * @param p_cycle cycle call
+     * @tparam T return type
+     * @return return value of the cycle
+     * @throws Exception on execution error
+     */
+    public <T> T cycle( @Nonnull final Callable<T> p_cycle ) throws Exception
+    {
+        final CStack l_stack = m_stack.get();
+        l_stack.start();
+        try
+        {
+            return p_cycle.call();
+        }
+        finally
+        {
+            l_stack.attribute( "", false );
+            l_stack.stop();
+        }
+    }
+
+    /**
+     * decorates an action
+     *
+     * @param p_action action
+     * @return decorated action
+     */
+    @Nonnull
+    public IAction decorate( @Nonnull final IAction p_action )
+    {
+        return new CProfilingAction( p_action, this );
+    }
+
+    /**
+     * decorates a variable builder, so each plan instantiation
+     * is a frame of the stack
+     *
+     * @param p_builder variable builder
+     * @return decorated variable builder
+     */
+    @Nonnull
+    public IVariableBuilder decorate( @Nonnull final IVariableBuilder p_builder )
+    {
+        return ( p_agent, p_instance ) ->
+        {
+            m_stack.get().instantiate( p_agent, p_instance );
+            return p_builder.apply( p_agent, p_instance );
+        };
+    }
+
+    /**
+     * returns the profile in the collapsed-stack format
+     *
+     * @param p_value profile value
+     * @return collapsed stacks
+     */
+    @Nonnull
+    public String collapsed( @Nonnull final EValue p_value )
+    {
+        return m_frames.entrySet()
+                       .stream()
+                       .filter( i -> p_value.apply( i.getValue() ) > 0 )
+                       .sorted( Map.Entry.comparingByKey() )
+                       .map( i -> MessageFormat.format( "{0} {1,number,#}", i.getKey(), p_value.apply( i.getValue() ) ) )
+                       .collect( Collectors.joining( "\n" ) );
+    }
+
+    /**
+     * writes the profile into a collapsed-stack file
+     *
+     * @param p_file file
+     * @param p_value profile value
+     * @throws IOException on io error
+     */
+    public void store( @Nonnull final Path p_file, @Nonnull final EValue p_value ) throws IOException
+    {
+        Files.write( p_file, this.collapsed( p_value ).getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * returns the frame of a collapsed stack
+     *
+     * @param p_stack collapsed stack
+     * @return frame
+     */
+    @Nonnull
+    private CFrame frame( @Nonnull final String p_stack )
+    {
+        return m_frames.computeIfAbsent( p_stack, i -> new CFrame() );
+    }
+
+    /**
+     * returns the cpu time of the current thread
+     *
+     * @return cpu time in nanoseconds or zero if not supported
+     */
+    private static long cputime()
+    {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * frame name of a plan instance, the semicolon is the
+     * separator of the collapsed format, so it is replaced
+     *
+     * @param p_name name
+     * @return frame name
+     */
+    @Nonnull
+    private static String name( @Nonnull final String p_name )
+    {
+        return p_name.replace( ';', ',' );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * profile values
+     */
+    public enum EValue implements Function<CFrame, Long>
+    {
+        WALL,
+        CPU,
+        CALLS;
+
+        @Override
+        public Long apply( @Nonnull final CFrame p_frame )
+        {
+            switch ( this )
+            {
+                case WALL:
+                    return p_frame.m_wall.sum() / 1000;
+
+                case CPU:
+                    return p_frame.m_cpu.sum() / 1000;
+
+                default:
+                    return p_frame.m_calls.sum();
+            }
+        }
+    }
+
+    /**
+     * profile frame, times are stored in nanoseconds
+     * and exported in microseconds
+     */
+    static final class CFrame
+    {
+        /**
+         * wall time
+         */
+        private final LongAdder m_wall = new LongAdder();
+        /**
+         * cpu time
+         */
+        private final LongAdder m_cpu = new LongAdder();
+        /**
+         * number of action calls
+         */
+        private final LongAdder m_calls = new LongAdder();
+    }
+
+    /**
+     * plan stack of a thread
+     */
+    private final class CStack
+    {
+        /**
+         * plan instantiations, the last one is the running plan
+         */
+        private final List<CInstantiation> m_instantiations = new ArrayList<>();
+        /**
+         * wall time of the last attribution
+         */
+        private long m_wall;
+        /**
+         * cpu time of the last attribution
+         */
+        private long m_cpu;
+        /**
+         * thread runs an agent cycle
+         */
+        private boolean m_cycle;
+
+        /**
+         * starts a cycle
+         */
+        void start()
+        {
+            m_instantiations.clear();
+            m_cycle = true;
+            this.mark();
+        }
+
+        /**
+         * stops a cycle
+         */
+        void stop()
+        {
+            m_instantiations.clear();
+            m_cycle = false;
+        }
+
+        /**
+         * pushes a plan instantiation above the running plans, a rule
+         * cannot instantiate a plan, so rules on top are finished
+         *
+         * @param p_agent agent
+         * @param p_instance plan instance
+         */
+        void instantiate( @Nonnull final IAgent<?> p_agent, @Nonnull final IInstantiable p_instance )
+        {
+            this.finish( p_agent, p_instance instanceof IPlan );
+            this.gap();
+            m_instantiations.add( new CInstantiation( p_agent, p_instance ) );
+        }
+
+        /**
+         * enters the plan of an action call, the plans above the plan of the
+         * action are finished, a plan, which is not on the stack, is pushed
+         *
+         * @param p_context execution context of the action
+         */
+        void enter( @Nonnull final IContext p_context )
+        {
+            if ( !m_instantiations.isEmpty() && m_instantiations.get( 0 ).m_agent != p_context.agent() )
+                m_instantiations.clear();
+
+            for ( int i = m_instantiations.size() - 1; i > -1; i-- )
+                if ( m_instantiations.get( i ).bind( p_context ) )
+                {
+                    this.pop( i + 1 );
+                    this.gap();
+                    return;
+                }
+
+            this.finish( p_context.agent(), false );
+            final CInstantiation l_instantiation = new CInstantiation( p_context.agent(), p_context.instance() );
+            l_instantiation.bind( p_context );
+            m_instantiations.add( l_instantiation );
+            this.gap();
+        }
+
+        /**
+         * attributes the time since the last attribution to the current stack
+         *
+         * @param p_action action frame or empty
+         * @param p_call count an action call
+         */
+        void attribute( @Nonnull final String p_action, final boolean p_call )
+        {
+            final long l_wall = System.nanoTime();
+            final long l_cpu = cputime();
+
+            final StringBuilder l_stack = new StringBuilder( ROOT );
+            m_instantiations.forEach( i -> l_stack.append( ';' ).append( name( i.m_instance.literal().toString() ) ) );
+            if ( !p_action.isEmpty() )
+                l_stack.append( ';' ).append( name( p_action ) );
+
+            final CFrame l_frame = CPlanProfiler.this.frame( l_stack.toString() );
+            l_frame.m_wall.add( l_wall - m_wall );
+            l_frame.m_cpu.add( l_cpu - m_cpu );
+            if ( p_call )
+                l_frame.m_calls.increment();
+
+            m_wall = l_wall;
+            m_cpu = l_cpu;
+        }
+
+        /**
+         * pops the finished plans on top of the stack, a plan is finished if the agent
+         * runs less plans of its functor than the stack contains, a stack of another
+         * agent is left over by a task of a pooled thread and is removed
+         *
+         * @param p_agent agent
+         * @param p_rules pop rules on top
+         */
+        private void finish( @Nonnull final IAgent<?> p_agent, final boolean p_rules )
+        {
+            if ( !m_instantiations.isEmpty() && m_instantiations.get( 0 ).m_agent != p_agent )
+                m_instantiations.clear();
+
+            while ( !m_instantiations.isEmpty() )
+            {
+                final CInstantiation l_top = m_instantiations.get( m_instantiations.size() - 1 );
+                if ( l_top.m_instance instanceof IPlan
+                     ? p_agent.runningplans().get( l_top.m_functor ).size() >= this.count( l_top.m_functor )
+                     : !p_rules )
+                    return;
+
+                m_instantiations.remove( m_instantiations.size() - 1 );
+            }
+        }
+
+        /**
+         * returns the number of plan frames of a functor
+         *
+         * @param p_functor functor
+         * @return number of frames
+         */
+        private long count( @Nonnull final IPath p_functor )
+        {
+            return m_instantiations.stream()
+                                   .filter( i -> i.m_instance instanceof IPlan && i.m_functor.equals( p_functor ) )
+                                   .count();
+        }
+
+        /**
+         * pops the frames above a size
+         *
+         * @param p_size stack size
+         */
+        private void pop( final int p_size )
+        {
+            while ( m_instantiations.size() > p_size )
+                m_instantiations.remove( m_instantiations.size() - 1 );
+        }
+
+        /**
+         * attributes the time since the last event as self time of the current
+         * stack, outside of a cycle the time is not attributed
+         */
+        private void gap()
+        {
+            if ( m_cycle )
+                this.attribute( "", false );
+            else
+                this.mark();
+        }
+
+        /**
+         * marks the current times without attribution
+         */
+        private void mark()
+        {
+            m_wall = System.nanoTime();
+            m_cpu = cputime();
+        }
+    }
+
+    /**
+     * plan instantiation on the stack
+     */
+    private static final class CInstantiation
+    {
+        /**
+         * agent
+         */
+        private final IAgent<?> m_agent;
+        /**
+         * plan instance
+         */
+        private final IInstantiable m_instance;
+        /**
+         * functor of the instance literal
+         */
+        private final IPath m_functor;
+        /**
+         * execution context or null if no action is called
+         */
+        private IContext m_context;
+
+        /**
+         * ctor
+         *
+         * @param p_agent agent
+         * @param p_instance plan instance
+         */
+        CInstantiation( @Nonnull final IAgent<?> p_agent, @Nonnull final IInstantiable p_instance )
+        {
+            m_agent = p_agent;
+            m_instance = p_instance;
+            m_functor = p_instance.literal().fqnfunctor();
+        }
+
+        /**
+         * binds the execution context of the first action call
+         *
+         * @param p_context execution context
+         * @return true if the context belongs to the instantiation
+         */
+        boolean bind( @Nonnull final IContext p_context )
+        {
+            if ( Objects.isNull( m_context ) && m_instance == p_context.instance() )
+                m_context = p_context;
+            return m_context == p_context;
+        }
+    }
+
+    /**
+     * action decorator of the profiler
+     */
+    private static final class CProfilingAction extends IBaseActionDecorator
+    {
+        /**
+         * serial id
+         */
+        private static final long serialVersionUID = 7361740184215593207L;
+        /**
+         * profiler
+         */
+        private final transient CPlanProfiler m_profiler;
+
+        /**
+         * ctor
+         *
+         * @param p_action decorated action
+         * @param p_profiler profiler
+         */
+        CProfilingAction( @Nonnull final IAction p_action, @Nonnull final CPlanProfiler p_profiler )
+        {
+            super( p_action );
+            m_profiler = p_profiler;
+        }
+
+        @Nonnull
+        @Override
+        public Stream<IFuzzyValue<?>> execute( final boolean p_parallel, @Nonnull final IContext p_context,
+                                               @Nonnull final List<ITerm> p_argument, @Nonnull final List<ITerm> p_return )
+        {
+            final CStack l_stack = m_profiler.m_stack.get();
+            l_stack.enter( p_context );
+            try
+            {
+                return m_action.execute( p_parallel, p_context, p_argument, p_return );
+            }
+            finally
+            {
+                l_stack.attribute( m_action.name().toString(), true );
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ITerm;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * generator of random terms, a term is a number, a string, a boolean or a nested
+ * list of terms, a map or a multimap, the generator is seeded, so a failing
+ * input can be reproduced, the generator is not thread-safe
+ */
+final class CTermGenerator
+{
+    /**
+     * characters of the strings
+     */
+    private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 _-/";
+    /**
+     * random generator
+     */
+    private final Random m_random;
+    /**
+     * maximum nesting depth
+     */
+    private final int m_depth;
+    /**
+     * maximum size of strings and containers
+     */
+    private final int m_size;
+
+    /**
+     * ctor
+     *
+     * @param p_seed random seed
+     * @param p_depth maximum nesting depth
+     * @param p_size maximum size of strings and containers
+     */
+    CTermGenerator( final long p_seed, @Nonnegative final int p_depth, @Nonnegative final int p_size )
+    {
+        m_random = new Random( p_seed );
+        m_depth = p_depth;
+        m_size = Math.max( 1, p_size );
+    }
+
+    /**
+     * generates arguments
+     *
+     * @param p_count number of arguments
+     * @return argument list
+     */
+    @Nonnull
+    List<ITerm> arguments( @Nonnegative final int p_count )
+    {
+        return IntStream.range( 0, p_count ).mapToObj( i -> this.term() ).collect( Collectors.toList() );
+    }
+
+    /**
+     * generates a term
+     *
+     * @return term
+     */
+    @Nonnull
+    ITerm term()
+    {
+        return CRawTerm.of( this.value( m_depth ) );
+    }
+
+    /**
+     * generates a value, containers are generated only above depth zero
+     *
+     * @param p_depth remaining depth
+     * @return value
+     */
+    @Nonnull
+    private Object value( @Nonnegative final int p_depth )
+    {
+        switch ( m_random.nextInt( p_depth > 0 ? 6 : 3 ) )
+        {
+            case 0:
+                return m_random.nextBoolean() ? (double) m_random.nextInt( 2 * m_size ) - m_size : m_random.nextGaussian() * m_size;
+
+            case 1:
+                return this.string();
+
+            case 2:
+                return m_random.nextBoolean();
+
+            case 3:
+                return IntStream.range( 0, m_random.nextInt( m_size ) )
+                                .mapToObj( i -> CRawTerm.of( this.value( p_depth - 1 ) ) )
+                                .collect( Collectors.toList() );
+
+            case 4:
+                final Map<Object, Object> l_map = new HashMap<>();
+                IntStream.range( 0, m_random.nextInt( m_size ) ).forEach( i -> l_map.put( this.string(), this.value( p_depth - 1 ) ) );
+                return l_map;
+
+            default:
+                final Multimap<Object, Object> l_multimap = HashMultimap.create();
+                IntStream.range( 0, m_random.nextInt( m_size ) ).forEach( i -> l_multimap.put( this.string(), this.value( p_depth - 1 ) ) );
+                return l_multimap;
+        }
+    }
+
+    /**
+     * generates a string
+     *
+     * @return string
+     */
+    @Nonnull
+    private String string()
+    {
+        return m_random.ints( m_random.nextInt( m_size ), 0, CHARACTERS.length() )
+                       .mapToObj( i -> String.valueOf( CHARACTERS.charAt( i ) ) )
+                       .collect( Collectors.joining() );
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+
+/**
+ * scheduler, which runs the cycle loop of each agent as a task of an executor,
+ * with virtual threads a blocking action parks the virtual thread and releases
+ * the carrier thread, so the number of concurrent agents is not bound to the
+ * number of platform threads, the virtual thread executor is resolved by
+ * reflection, because it exists since java 21 only, the first error of
+ * a cycle stops all agents and is thrown by the execution
+ */
+public final class CThreadScheduler implements IAgentScheduler
+{
+    /**
+     * executor
+     */
+    private final ExecutorService m_executor;
+    /**
+     * cycle call of an agent
+     */
+    private final Predicate<IAgent<?>> m_cycle;
+
+    /**
+     * ctor
+     *
+     * @param p_executor executor
+     * @param p_cycle cycle call of an agent
+     */
+    private CThreadScheduler( @Nonnull final ExecutorService p_executor, @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        m_executor = p_executor;
+        m_cycle = p_cycle;
+    }
+
+    /**
+     * creates a scheduler with a fixed pool of platform threads
+     *
+     * @param p_threads number of threads
+     * @param p_cycle cycle call of an agent
+     * @return scheduler
+     */
+    @Nonnull
+    public static CThreadScheduler platform( @Nonnegative final int p_threads, @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        return new CThreadScheduler(
+            Executors.newFixedThreadPool( p_threads, daemon( "agent-scheduler" ) ),
+            p_cycle
+        );
+    }
+
+    /**
+     * creates a scheduler with a virtual thread for each agent
+     *
+     * @param p_cycle cycle call of an agent
+     * @return scheduler or empty if virtual threads are not supported
+     */
+    @Nonnull
+    public static Optional<CThreadScheduler> virtual( @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        return virtualexecutor().map( i -> new CThreadScheduler( i, p_cycle ) );
+    }
+
+    /**
+     * creates a factory of daemon platform threads, so
+     * a pending cycle does not block the exit of the jvm
+     *
+     * @param p_name thread name
+     * @return thread factory
+     */
+    @Nonnull
+    static ThreadFactory daemon( @Nonnull final String p_name )
+    {
+        return i ->
+        {
+            final Thread l_thread = new Thread( i, p_name );
+            l_thread.setDaemon( true );
+            return l_thread;
+        };
+    }
+
+    /**
+     * creates an executor with a virtual thread for each task
+     *
+     * @return executor or empty if virtual threads are not supported
+     */
+    @Nonnull
+    static Optional<ExecutorService> virtualexecutor()
+    {
+        try
+        {
+            return Optional.of( (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null ) );
+        }
+        catch ( final NoSuchMethodException | IllegalAccessException | InvocationTargetException l_exception )
+        {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public long execute( @Nonnull final Collection<? extends IAgent<?>> p_agents, @Nonnegative final int p_cycles ) throws InterruptedException
+    {
+        final LongAdder l_cycles = new LongAdder();
+        final AtomicReference<Throwable> l_error = new AtomicReference<>();
+        final CountDownLatch l_finished = new CountDownLatch( p_agents.size() );
+
+        p_agents.forEach( i -> m_executor.execute( () ->
+        {
+            try
+            {
+                for ( int j = 0; j < p_cycles && Objects.isNull( l_error.get() ); j++ )
+                    if ( m_cycle.test( i ) )
+                        l_cycles.increment();
+            }
+            catch ( final Throwable l_exception )
+            {
+                l_error.compareAndSet( null, l_exception );
+            }
+            finally
+            {
+                l_finished.countDown();
+            }
+        } ) );
+
+        l_finished.await();
+        if ( Objects.nonNull( l_error.get() ) )
+            throw new IllegalStateException( l_error.get() );
+
+        return l_cycles.sum();
+    }
+
+    @Override
+    public void close()
+    {
+        m_executor.shutdownNow();
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+
+/**
+ * timeline recorder of agent cycles and action executions, the spans
+ * are exported in the chrome trace event format, each agent is a process
+ * and each executing thread is a thread of the timeline, so scheduling gaps
+ * and stragglers can be seen in a trace viewer, the process identifiers are
+ * numbered in the order of the first span of the agents, the number of spans is bounded
+ */
+public final class CTraceRecorder
+{
+    /**
+     * start time of the recording
+     */
+    private final long m_start = System.nanoTime();
+    /**
+     * maximum number of spans
+     */
+    private final int m_capacity;
+    /**
+     * number of spans
+     */
+    private final AtomicInteger m_size = new AtomicInteger();
+    /**
+     * recorded spans
+     */
+    private final Queue<CSpan> m_spans = new ConcurrentLinkedQueue<>();
+    /**
+     * process identifiers of the agents, agents are compared by identity
+     */
+    private final Map<IAgent<?>, Integer> m_identifiers = Collections.synchronizedMap( new IdentityHashMap<>() );
+    /**
+     * last process identifier
+     */
+    private final AtomicInteger m_identifier = new AtomicInteger();
+    /**
+     * agent names
+     */
+    private final Map<Integer, String> m_agents = new ConcurrentHashMap<>();
+    /**
+     * thread names
+     */
+    private final Map<Long, String> m_threads = new ConcurrentHashMap<>();
+    /**
+     * threads of each agent
+     */
+    private final Map<Integer, Set<Long>> m_lanes = new ConcurrentHashMap<>();
+
+    /**
+     * ctor
+     *
+     * @param p_capacity maximum number of spans
+     */
+    public CTraceRecorder( @Nonnegative final int p_capacity )
+    {
+        m_capacity = p_capacity;
+    }
+
+    /**
+     * executes an agent cycle within a cycle span
+     *
+     * @param p_agent agent
+     * @param p_cycle cycle call
+     * @tparam T return type
+     * @return return value of the cycle
+     * @throws Exception on execution error
+     */
+    public <T> T cycle( @Nonnull final IAgent<?> p_agent, @Nonnull final Callable<T> p_cycle ) throws Exception
+    {
+        final long l_start = System.nanoTime();
+        try
+        {
+            return p_cycle.call();
+        }
+        finally
+        {
+            this.record( "cycle", "cycle", p_agent, l_start );
+        }
+    }
+
+    /**
+     * decorates an action with an action span
+     *
+     * @param p_action action
+     * @return decorated action
+     */
+    @Nonnull
+    public IAction decorate( @Nonnull final IAction p_action )
+    {
+        return new CTraceAction( p_action, this );
+    }
+
+    /**
+     * returns the number of dropped spans
+     *
+     * @return number of spans, which exceed the capacity
+     */
+    @Nonnegative
+    public int dropped()
+    {
+        return Math.max( 0, m_size.get() - m_capacity );
+    }
+
+    /**
+     * writes the timeline as chrome trace event json
+     *
+     * @param p_file file
+     * @throws IOException on io error
+     */
+    public void store( @Nonnull final Path p_file ) throws IOException
+    {
+        try ( Writer l_writer = Files.newBufferedWriter( p_file, StandardCharsets.UTF_8 ) )
+        {
+            l_writer.write( "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[" );
+
+            boolean l_first = true;
+            for ( final Map.Entry<Integer, String> l_agent : m_agents.entrySet() )
+            {
+                l_writer.write( l_first ? "\n" : ",\n" );
+                l_writer.write( String.format(
+                    Locale.ROOT, "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":%d,\"args\":{\"name\":\"agent %s\"}}",
+                    l_agent.getKey(), escape( l_agent.getValue() )
+                ) );
+                l_first = false;
+            }
+
+            for ( final CSpan l_span : m_spans )
+            {
+                l_writer.write( l_first ? "\n" : ",\n" );
+                l_writer.write( String.format(
+                    Locale.ROOT, "{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%.3f,\"dur\":%.3f,\"pid\":%d,\"tid\":%d}",
+                    escape( l_span.m_name ), l_span.m_category, l_span.m_start / 1e3, l_span.m_duration / 1e3, l_span.m_agent, l_span.m_thread
+                ) );
+                l_first = false;
+            }
+
+            // thread names are written for each agent, because the viewer groups the threads by the process
+            for ( final Map.Entry<Integer, Set<Long>> l_lane : m_lanes.entrySet() )
+                for ( final Long l_thread : l_lane.getValue() )
+                {
+                    l_writer.write( l_first ? "\n" : ",\n" );
+                    l_writer.write( String.format(
+                        Locale.ROOT, "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":%d,\"tid\":%d,\"args\":{\"name\":\"%s\"}}",
+                        l_lane.getKey(), l_thread, escape( m_threads.getOrDefault( l_thread, "" ) )
+                    ) );
+                    l_first = false;
+                }
+
+            l_writer.write( "\n]}\n" );
+        }
+    }
+
+    /**
+     * records a span, which ends now
+     *
+     * @param p_name span name
+     * @param p_category span category
+     * @param p_agent agent
+     * @param p_start start time in nanoseconds
+     */
+    private void record( @Nonnull final String p_name, @Nonnull final String p_category, @Nonnull final IAgent<?> p_agent, final long p_start )
+    {
+        final long l_end = System.nanoTime();
+        if ( m_size.incrementAndGet() > m_capacity )
+            return;
+
+        final Thread l_thread = Thread.currentThread();
+        final int l_agent = m_identifiers.computeIfAbsent( p_agent, i -> m_identifier.incrementAndGet() );
+
+        m_agents.computeIfAbsent( l_agent, i -> CFlightRecorder.identifier( p_agent ) );
+        m_threads.computeIfAbsent( l_thread.getId(), i -> l_thread.getName() );
+        m_lanes.computeIfAbsent( l_agent, i -> ConcurrentHashMap.newKeySet() ).add( l_thread.getId() );
+        m_spans.add( new CSpan( p_name, p_category, l_agent, l_thread.getId(), p_start - m_start, l_end - p_start ) );
+    }
+
+    /**
+     * escapes a json string
+     *
+     * @param p_value string
+     * @return escaped string
+     */
+    @Nonnull
+    private static String escape( @Nonnull final String p_value )
+    {
+        final StringBuilder l_result = new StringBuilder( p_value.length() );
+        for ( final char l_char : p_value.toCharArray() )
+            if ( l_char == '"' || l_char == '\\' )
+                l_result.append( '\\' ).append( l_char );
+            else if ( l_char < 0x20 )
+                l_result.append( String.format( Locale.ROOT, "\\u%04x", (int) l_char ) );
+            else
+                l_result.append( l_char );
+        return l_result.toString();
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * timeline span, times are stored in nanoseconds
+     * and exported in microseconds
+     */
+    private static final class CSpan
+    {
+        /**
+         * name
+         */
+        private final String m_name;
+        /**
+         * category
+         */
+        private final String m_category;
+        /**
+         * agent identifier
+         */
+        private final int m_agent;
+        /**
+         * thread identifier
+         */
+        private final long m_thread;
+        /**
+         * start time relative to the recording
+         */
+        private final long m_start;
+        /**
+         * duration
+         */
+        private final long m_duration;
+
+        /**
+         * ctor
+         *
+         * @param p_name name
+         * @param p_category category
+         * @param p_agent agent identifier
+         * @param p_thread thread identifier
+         * @param p_start start time relative to the recording
+         * @param p_duration duration
+         */
+        CSpan( @Nonnull final String p_name, @Nonnull final String p_category, final int p_agent, final long p_thread,
+               final long p_start, final long p_duration )
+        {
+            m_name = p_name;
+            m_category = p_category;
+            m_agent = p_agent;
+            m_thread = p_thread;
+            m_start = p_start;
+            m_duration = p_duration;
+        }
+    }
+
+    /**
+     * action decorator with action spans
+     */
+    private static final class CTraceAction extends IBaseActionDecorator
+    {
+        /**
+         * serial id
+         */
+        private static final long serialVersionUID = -2871605473391820583L;
+        /**
+         * recorder
+         */
+        private final transient CTraceRecorder m_recorder;
+
+        /**
+         * ctor
+         *
+         * @param p_action decorated action
+         * @param p_recorder recorder
+         */
+        CTraceAction( @Nonnull final IAction p_action, @Nonnull final CTraceRecorder p_recorder )
+        {
+            super( p_action );
+            m_recorder = p_recorder;
+        }
+
+        @Nonnull
+        @Override
+        public Stream<IFuzzyValue<?>> execute( final boolean p_parallel, @Nonnull final IContext p_context,
+                                               @Nonnull final List<ITerm> p_argument, @Nonnull final List<ITerm> p_return )
+        {
+            final long l_start = System.nanoTime();
+            try
+            {
+                return m_action.execute( p_parallel, p_context, p_argument, p_return );
+            }
+            finally
+            {
+                m_recorder.record( m_action.name().toString(), "action", p_context.agent(), l_start );
+            }
+        }
+    }
+}
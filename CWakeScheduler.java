@@ -0,0 +1,370 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.CCommon;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.instantiable.plan.trigger.ITrigger;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+
+/**
+ * scheduler, which cycles an agent only if the agent has pending triggers,
+ * running plans or an expired sleeping time, idle agents are parked until
+ * a trigger or a wakeup is passed to the agent, sleeping agents are parked
+ * until the sleeping cycles are expired, triggers, sleeps and wakeups of a
+ * parked agent must be passed by the scheduler or announced with notify,
+ * so a tick touches only the ready agents and the expired sleeping agents,
+ * the pending triggers and the sleeping cycles are not part of the agent
+ * interface, so they are read from the agent fields and an agent class
+ * without these fields is rejected on registration
+ */
+public final class CWakeScheduler implements IAgentScheduler
+{
+    /**
+     * field name of the pending triggers
+     */
+    private static final String TRIGGER = "m_trigger";
+    /**
+     * field name of the sleeping cycles
+     */
+    private static final String SLEEPING = "m_sleepingcycles";
+    /**
+     * expiry tick of parked agents, which are not sleeping
+     */
+    private static final long IDLE = Long.MIN_VALUE;
+    /**
+     * fields of the agent classes
+     */
+    private static final Map<String, Field> FIELDS = new ConcurrentHashMap<>();
+    /**
+     * cycle call of an agent
+     */
+    private final Predicate<IAgent<?>> m_cycle;
+    /**
+     * current tick
+     */
+    private final AtomicLong m_tick = new AtomicLong();
+    /**
+     * registered agents
+     */
+    private final Set<IAgent<?>> m_agents = ConcurrentHashMap.newKeySet();
+    /**
+     * agents, which are cycled on the next tick
+     */
+    private final Set<IAgent<?>> m_ready = ConcurrentHashMap.newKeySet();
+    /**
+     * parked agents with the tick of the sleeping end, idle agents and
+     * infinitely sleeping agents are not woken up by the scheduler
+     */
+    private final Map<IAgent<?>, Long> m_parked = new ConcurrentHashMap<>();
+    /**
+     * sleeping agents with the tick of the sleeping end as key, an entry
+     * is stale if it does not match the sleeping end of the parked agent
+     */
+    private final NavigableMap<Long, Set<IAgent<?>>> m_sleeping = new ConcurrentSkipListMap<>();
+
+    /**
+     * ctor
+     *
+     * @param p_cycle cycle call of an agent
+     */
+    public CWakeScheduler( @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        m_cycle = p_cycle;
+    }
+
+    /**
+     * executes ticks, on each tick the ready agents are cycled in parallel,
+     * unknown agents are registered and cycled on the first tick
+     *
+     * @param p_agents agents
+     * @param p_cycles number of ticks
+     * @return number of successful cycles
+     * @throws IllegalStateException if the trigger or sleeping state of an agent class cannot be read
+     */
+    @Override
+    public long execute( @Nonnull final Collection<? extends IAgent<?>> p_agents, @Nonnegative final int p_cycles )
+    {
+        p_agents.stream().filter( i -> !m_agents.contains( i ) ).forEach( i ->
+        {
+            triggered( i );
+            sleeping( i );
+            m_agents.add( i );
+            m_ready.add( i );
+        } );
+
+        long l_cycles = 0;
+        for ( int i = 0; i < p_cycles; i++ )
+            l_cycles += this.tick();
+        return l_cycles;
+    }
+
+    /**
+     * adds a trigger to an agent and marks the agent as ready
+     *
+     * @param p_agent agent
+     * @param p_trigger trigger
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CWakeScheduler trigger( @Nonnull final IAgent<?> p_agent, @Nonnull final ITrigger p_trigger )
+    {
+        p_agent.trigger( p_trigger );
+        this.unpark( p_agent );
+        return this;
+    }
+
+    /**
+     * wakes up a sleeping agent and marks the agent as ready
+     *
+     * @param p_agent agent
+     * @param p_value wakeup values
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CWakeScheduler wakeup( @Nonnull final IAgent<?> p_agent, @Nonnull final ITerm... p_value )
+    {
+        p_agent.wakeup( p_value );
+        this.unpark( p_agent );
+        return this;
+    }
+
+    /**
+     * puts an agent to sleep and parks the agent until the sleeping cycles are expired
+     *
+     * @param p_agent agent
+     * @param p_cycles sleeping cycles
+     * @param p_value wakeup values
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CWakeScheduler sleep( @Nonnull final IAgent<?> p_agent, @Nonnegative final long p_cycles, @Nonnull final ITerm... p_value )
+    {
+        p_agent.sleep( p_cycles, p_value );
+        return this.notify( p_agent );
+    }
+
+    /**
+     * announces a state change of an agent, which is made outside the scheduler, e.g. a trigger,
+     * sleep or wakeup by an action of another agent, a parked agent is parked again with its
+     * current state or marked as ready, an agent, which is cycled on the next tick, is unchanged
+     *
+     * @param p_agent agent
+     * @return scheduler reference
+     */
+    @Nonnull
+    public CWakeScheduler notify( @Nonnull final IAgent<?> p_agent )
+    {
+        if ( Objects.nonNull( m_parked.remove( p_agent ) ) )
+            this.park( p_agent, m_tick.get() );
+        return this;
+    }
+
+    /**
+     * returns the number of agents, which are cycled on the next tick
+     *
+     * @return number of ready agents
+     */
+    @Nonnegative
+    public int ready()
+    {
+        return m_ready.size();
+    }
+
+    /**
+     * returns the number of parked agents
+     *
+     * @return number of agents, which are not cycled on the next tick
+     */
+    @Nonnegative
+    public int parked()
+    {
+        return m_parked.size();
+    }
+
+    @Override
+    public void close()
+    {
+        m_agents.clear();
+        m_ready.clear();
+        m_parked.clear();
+        m_sleeping.clear();
+    }
+
+    /**
+     * executes a tick
+     *
+     * @return number of successful cycles
+     */
+    private long tick()
+    {
+        final long l_tick = m_tick.incrementAndGet();
+
+        // sleeping agents are woken up by the scheduler, because the sleeping cycles are not counted down without cycles
+        final Map<Long, Set<IAgent<?>>> l_expired = m_sleeping.headMap( l_tick, true );
+        l_expired.forEach( ( i, j ) -> j.stream().filter( k -> m_parked.remove( k, i ) ).forEach( k ->
+        {
+            if ( k.sleeping() )
+                k.wakeup();
+            m_ready.add( k );
+        } ) );
+        l_expired.clear();
+
+        // agents, which are triggered during the tick, are marked as ready for the next tick
+        final List<IAgent<?>> l_agents = new ArrayList<>( m_ready );
+        l_agents.forEach( i ->
+        {
+            m_ready.remove( i );
+            m_parked.remove( i );
+        } );
+
+        final long l_cycles = l_agents.parallelStream().filter( m_cycle ).count();
+        l_agents.parallelStream().forEach( i -> this.park( i, l_tick ) );
+        return l_cycles;
+    }
+
+    /**
+     * parks an agent after the cycle
+     *
+     * @param p_agent agent
+     * @param p_tick current tick
+     */
+    private void park( @Nonnull final IAgent<?> p_agent, final long p_tick )
+    {
+        if ( p_agent.sleeping() )
+        {
+            final long l_sleeping = sleeping( p_agent );
+            final long l_expiry = l_sleeping == Long.MAX_VALUE ? Long.MAX_VALUE : p_tick + Math.max( 1, l_sleeping );
+            m_parked.put( p_agent, l_expiry );
+            if ( l_expiry < Long.MAX_VALUE )
+                m_sleeping.computeIfAbsent( l_expiry, i -> ConcurrentHashMap.newKeySet() ).add( p_agent );
+            return;
+        }
+
+        if ( !p_agent.runningplans().isEmpty() || triggered( p_agent ) )
+            m_ready.add( p_agent );
+        else
+            m_parked.put( p_agent, IDLE );
+    }
+
+    /**
+     * marks a parked agent as ready, the sleeping entry of the
+     * agent gets stale and is ignored on the sleeping end
+     *
+     * @param p_agent agent
+     */
+    private void unpark( @Nonnull final IAgent<?> p_agent )
+    {
+        m_parked.remove( p_agent );
+        m_ready.add( p_agent );
+    }
+
+    /**
+     * checks if an agent has pending triggers
+     *
+     * @param p_agent agent
+     * @return true if the agent has triggers
+     */
+    private static boolean triggered( @Nonnull final IAgent<?> p_agent )
+    {
+        final Object l_trigger = field( p_agent, TRIGGER );
+        if ( l_trigger instanceof Map<?, ?> )
+            return !( (Map<?, ?>) l_trigger ).isEmpty();
+        if ( l_trigger instanceof Collection<?> )
+            return !( (Collection<?>) l_trigger ).isEmpty();
+
+        throw new IllegalStateException( MessageFormat.format(
+            "field [{0}] of agent class [{1}] is not a collection or map", TRIGGER, p_agent.getClass().getName()
+        ) );
+    }
+
+    /**
+     * returns the remaining sleeping cycles of an agent
+     *
+     * @param p_agent agent
+     * @return number of cycles
+     */
+    private static long sleeping( @Nonnull final IAgent<?> p_agent )
+    {
+        final Object l_sleeping = field( p_agent, SLEEPING );
+        if ( l_sleeping instanceof Number )
+            return ( (Number) l_sleeping ).longValue();
+
+        throw new IllegalStateException( MessageFormat.format(
+            "field [{0}] of agent class [{1}] is not a number", SLEEPING, p_agent.getClass().getName()
+        ) );
+    }
+
+    /**
+     * reads an agent field
+     *
+     * @param p_agent agent
+     * @param p_name field name
+     * @return field value
+     * @throws IllegalStateException if the field does not exist or cannot be read
+     */
+    private static Object field( @Nonnull final IAgent<?> p_agent, @Nonnull final String p_name )
+    {
+        final Field l_field = FIELDS.computeIfAbsent(
+            p_agent.getClass().getName() + "#" + p_name,
+            i -> CCommon.classfields( p_agent.getClass() )
+                        .filter( j -> j.getName().equals( p_name ) )
+                        .findFirst()
+                        .map( j ->
+                        {
+                            j.setAccessible( true );
+                            return j;
+                        } )
+                        .orElseThrow( () -> new IllegalStateException( MessageFormat.format(
+                            "agent class [{0}] has no field [{1}], the scheduler cannot read the agent state", p_agent.getClass().getName(), p_name
+                        ) ) )
+        );
+
+        try
+        {
+            return l_field.get( p_agent );
+        }
+        catch ( final IllegalAccessException l_exception )
+        {
+            throw new IllegalStateException( l_exception );
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+
+/**
+ * scheduler of agent cycles
+ */
+public interface IAgentScheduler extends AutoCloseable
+{
+
+    /**
+     * executes the cycles of the agents and waits
+     * until all cycles are finished
+     *
+     * @param p_agents agents
+     * @param p_cycles number of cycles of each agent
+     * @return number of successful cycles
+     *
+     * @throws InterruptedException is thrown if the waiting thread is interrupted
+     */
+    @Nonnegative
+    long execute( @Nonnull Collection<? extends IAgent<?>> p_agents, @Nonnegative int p_cycles ) throws InterruptedException;
+
+    @Override
+    void close();
+
+}
@@ -0,0 +1,78 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.action.IBaseAction;
+import org.lightjason.agentspeak.common.IPath;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+
+/**
+ * base decorator of actions, name and
+ * argument number are passed to the decorated action
+ */
+public abstract class IBaseActionDecorator extends IBaseAction
+{
+    /**
+     * serial id
+     */
+    private static final long serialVersionUID = -4402893615217359641L;
+    /**
+     * decorated action
+     */
+    protected final IAction m_action;
+
+    /**
+     * ctor
+     *
+     * @param p_action decorated action
+     */
+    protected IBaseActionDecorator( @Nonnull final IAction p_action )
+    {
+        m_action = p_action;
+    }
+
+    @Nonnull
+    @Override
+    public final IPath name()
+    {
+        return m_action.name();
+    }
+
+    @Nonnegative
+    @Override
+    public final int minimalArgumentNumber()
+    {
+        return m_action.minimalArgumentNumber();
+    }
+
+    @Override
+    public final String toString()
+    {
+        return m_action.toString();
+    }
+}
@@ -71,6 +71,10 @@ public abstract class IBaseTest
      * enable printing of test-data
      */
     protected static final boolean PRINTENABLE = Files.exists( Paths.get( "agentprinting.conf" ) );
+    /**
+     * enable benchmark runs and timing output
+     */
+    protected static final boolean BENCHMARKENABLE = Files.exists( Paths.get( "agentbenchmark.conf" ) );
 
     /**
      * returns a class property
@@ -0,0 +1,397 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.common.CCommon;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.testing.action.CTestAnd;
+import org.lightjason.agentspeak.testing.action.CTestEqual;
+import org.lightjason.agentspeak.testing.action.CTestIs;
+import org.lightjason.agentspeak.testing.action.CTestListGet;
+import org.lightjason.agentspeak.testing.action.CTestListRange;
+import org.lightjason.agentspeak.testing.action.CTestMax;
+import org.lightjason.agentspeak.testing.action.CTestMin;
+import org.lightjason.agentspeak.testing.action.CTestOr;
+import org.lightjason.agentspeak.testing.action.CTestPrint;
+import org.lightjason.agentspeak.testing.action.CTestToString;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * performance contracts of the actions, a contract defines the input of an action,
+ * the measured baseline (ns/op and bytes/op) on the contract size and the growth of
+ * the action with the input size, each action is measured on the contract size and
+ * on a size, which is larger by the growth factor, a contract is violated if a
+ * measurement exceeds the baseline by more than the fixed margin or the growth
+ * between both sizes exceeds the growth of the contract, each test action must
+ * have a contract and package actions without contract are reported, the system
+ * property actioncontract.calibrate prints the measured baselines as contract
+ * definitions instead of checking them
+ */
+public final class TestCActionContract extends IBaseTest
+{
+    /**
+     * fixed margin of the baselines and the growth
+     */
+    private static final double MARGIN = 3;
+    /**
+     * absolute tolerance of the execution time in nanoseconds
+     * for the timer resolution of very fast actions
+     */
+    private static final double TIMETOLERANCE = 250;
+    /**
+     * absolute tolerance of the allocation in bytes
+     */
+    private static final double BYTESTOLERANCE = 128;
+    /**
+     * factor between the contract size and the large input size
+     */
+    private static final int GROWTHFACTOR = 10;
+    /**
+     * prints the measured baselines
+     */
+    private static final boolean CALIBRATE = Boolean.getBoolean( "actioncontract.calibrate" );
+    /**
+     * test actions, which are checked together with the actions of the package
+     */
+    private static final List<IAction> TESTACTIONS = Collections.unmodifiableList( Arrays.asList(
+        new CTestAnd(), new CTestEqual(), new CTestIs(), new CTestListGet(), new CTestListRange(),
+        new CTestMax(), new CTestMin(), new CTestOr(), new CTestPrint(), new CTestToString()
+    ) );
+    /**
+     * contracts of the action names
+     */
+    private static final Map<String, CContract> CONTRACTS = Collections.unmodifiableMap( Stream.of(
+        new CContract( "test/and", EInput.BOOLEANS, 100, EGrowth.LINEAR, 870, 312 ),
+        new CContract( "test/equal", EInput.NUMBERS, 100, EGrowth.LINEAR, 37300, 38300 ),
+        new CContract( "test/is", EInput.CLASSNAME, 100, EGrowth.LINEAR, 13500, 10200 ),
+        new CContract( "test/list/get", EInput.LISTINDEX, 100, EGrowth.CONSTANT, 120, 150 ),
+        new CContract( "test/list/range", EInput.RANGE, 100, EGrowth.LINEAR, 940, 1800 ),
+        new CContract( "test/max", EInput.NUMBERS, 100, EGrowth.LINEAR, 7900, 8600 ),
+        new CContract( "test/min", EInput.NUMBERS, 100, EGrowth.LINEAR, 4400, 8600 ),
+        new CContract( "test/or", EInput.BOOLEANS, 100, EGrowth.CONSTANT, 190, 310 ),
+        new CContract( "test/print", EInput.STRING, 100, EGrowth.CONSTANT, 35, 80 ),
+        new CContract( "test/tostring", EInput.NUMBERS, 100, EGrowth.LINEAR, 11100, 8200 )
+    ).collect( Collectors.toMap( i -> i.m_action, i -> i ) ) );
+    /**
+     * number of warm-up executions
+     */
+    private static final int WARMUP = 1000;
+    /**
+     * minimal number of measured executions
+     */
+    private static final int MINIMALEXECUTIONS = 100;
+    /**
+     * minimal measurement time in nanoseconds
+     */
+    private static final long MINIMALTIME = TimeUnit.MILLISECONDS.toNanos( 50 );
+
+    /**
+     * checks the contracts of all actions
+     *
+     * @throws Exception on agent error
+     */
+    @Test
+    public void contracts() throws Exception
+    {
+        final IContext l_context = new CLocalContext( new CAgentGenerator().generatesingle() );
+        final Map<String, IAction> l_actions = Stream.concat( TESTACTIONS.stream(), CCommon.actionsFromPackage() )
+                                                     .collect( Collectors.toMap( i -> i.name().toString(), i -> i, ( i, j ) -> i ) );
+
+        final Set<String> l_uncontracted = l_actions.keySet()
+                                                    .stream()
+                                                    .filter( i -> !CONTRACTS.containsKey( i ) )
+                                                    .collect( Collectors.toCollection( TreeSet::new ) );
+        if ( !l_uncontracted.isEmpty() )
+            System.out.println( MessageFormat.format(
+                "{0,number,#} actions without performance contract: {1}", l_uncontracted.size(), String.join( ", ", l_uncontracted )
+            ) );
+
+        // each action is measured on its own, so the timing is not disturbed by concurrent measurements
+        final String l_violations = Stream.concat(
+            TESTACTIONS.stream()
+                       .map( i -> i.name().toString() )
+                       .filter( l_uncontracted::contains )
+                       .map( i -> MessageFormat.format( "test action [{0}] has no contract", i ) ),
+            CONTRACTS.values()
+                     .stream()
+                     .sorted( Comparator.comparing( ( CContract i ) -> i.m_action ) )
+                     .map( i -> l_actions.containsKey( i.m_action )
+                                ? i.check( l_actions.get( i.m_action ), l_context )
+                                : MessageFormat.format( "contract of unknown action [{0}]", i.m_action ) )
+        ).filter( i -> !i.isEmpty() ).collect( Collectors.joining( "\n" ) );
+
+        Assertions.assertTrue( l_violations.isEmpty(), l_violations );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * input types of the contracts
+     */
+    private enum EInput
+    {
+        BOOLEANS,
+        NUMBERS,
+        CLASSNAME,
+        LISTINDEX,
+        RANGE,
+        STRING;
+
+        /**
+         * builds the arguments of the input
+         *
+         * @param p_size input size
+         * @return arguments
+         */
+        @Nonnull
+        List<ITerm> arguments( @Nonnegative final int p_size )
+        {
+            switch ( this )
+            {
+                case BOOLEANS:
+                    return IntStream.range( 0, p_size ).mapToObj( i -> CRawTerm.of( true ) ).collect( Collectors.toList() );
+
+                case NUMBERS:
+                    return IntStream.range( 0, p_size ).mapToObj( i -> CRawTerm.of( (double) i ) ).collect( Collectors.toList() );
+
+                case CLASSNAME:
+                    return Stream.concat(
+                        Stream.of( CRawTerm.of( Double.class.getName() ) ),
+                        IntStream.range( 0, p_size ).mapToObj( i -> CRawTerm.of( (double) i ) )
+                    ).collect( Collectors.toList() );
+
+                case LISTINDEX:
+                    return Arrays.asList(
+                        CRawTerm.of( IntStream.range( 0, p_size ).mapToObj( i -> (double) i ).collect( Collectors.toList() ) ),
+                        CRawTerm.of( (double) ( p_size / 2 ) )
+                    );
+
+                case RANGE:
+                    return Arrays.asList( CRawTerm.of( 0.0 ), CRawTerm.of( (double) p_size ) );
+
+                case STRING:
+                    return Collections.singletonList( CRawTerm.of( String.join( "", Collections.nCopies( p_size, "a" ) ) ) );
+
+                default:
+                    throw new IllegalStateException( MessageFormat.format( "unknown input {0}", this ) );
+            }
+        }
+    }
+
+    /**
+     * growth of an action with the input size
+     */
+    private enum EGrowth
+    {
+        CONSTANT,
+        LINEAR;
+
+        /**
+         * returns the expected ratio of two measurements
+         *
+         * @param p_factor factor of the input sizes
+         * @return ratio
+         */
+        double ratio( @Nonnegative final int p_factor )
+        {
+            return this == CONSTANT ? 1 : p_factor;
+        }
+    }
+
+    /**
+     * performance contract of an action
+     */
+    private static final class CContract
+    {
+        /**
+         * action name
+         */
+        private final String m_action;
+        /**
+         * input type
+         */
+        private final EInput m_input;
+        /**
+         * contract input size
+         */
+        private final int m_size;
+        /**
+         * growth of the action
+         */
+        private final EGrowth m_growth;
+        /**
+         * baseline nanoseconds of an execution on the contract size
+         */
+        private final double m_time;
+        /**
+         * baseline allocated bytes of an execution on the contract size
+         */
+        private final double m_bytes;
+
+        /**
+         * ctor
+         *
+         * @param p_action action name
+         * @param p_input input type
+         * @param p_size contract input size
+         * @param p_growth growth of the action
+         * @param p_time baseline nanoseconds of an execution
+         * @param p_bytes baseline allocated bytes of an execution
+         */
+        CContract( @Nonnull final String p_action, @Nonnull final EInput p_input, @Nonnegative final int p_size, @Nonnull final EGrowth p_growth,
+                   final double p_time, final double p_bytes )
+        {
+            m_action = p_action;
+            m_input = p_input;
+            m_size = p_size;
+            m_growth = p_growth;
+            m_time = p_time;
+            m_bytes = p_bytes;
+        }
+
+        /**
+         * measures an action on both input sizes and checks the contract
+         *
+         * @param p_action action
+         * @param p_context execution context
+         * @return violation message or empty string
+         */
+        @Nonnull
+        String check( @Nonnull final IAction p_action, @Nonnull final IContext p_context )
+        {
+            final double[] l_small;
+            final double[] l_large;
+            try
+            {
+                l_small = measure( p_action, p_context, m_input.arguments( m_size ) );
+                l_large = measure( p_action, p_context, m_input.arguments( m_size * GROWTHFACTOR ) );
+            }
+            catch ( final Exception l_exception )
+            {
+                return MessageFormat.format(
+                    "action [{0}] with {1} input of size {2,number,#} fails: {3}",
+                    m_action, m_input.name().toLowerCase( Locale.ROOT ), m_size, l_exception
+                );
+            }
+
+            if ( CALIBRATE )
+            {
+                System.out.println( MessageFormat.format(
+                    "new CContract( \"{0}\", EInput.{1}, {2,number,#}, EGrowth.{3}, {4,number,#}, {5,number,#} ), growth {6,number,#.#} / {7,number,#.#}",
+                    m_action, m_input, m_size, m_growth, l_small[0], l_small[1], l_large[0] / l_small[0], l_large[1] / Math.max( 1, l_small[1] )
+                ) );
+                return "";
+            }
+
+            return Stream.of(
+                violation( "ns/op", l_small[0], m_time * MARGIN + TIMETOLERANCE ),
+                violation( "bytes/op", l_small[1], m_bytes * MARGIN + BYTESTOLERANCE ),
+                violation( "ns/op growth", l_large[0], l_small[0] * m_growth.ratio( GROWTHFACTOR ) * MARGIN + TIMETOLERANCE ),
+                violation( "bytes/op growth", l_large[1], l_small[1] * m_growth.ratio( GROWTHFACTOR ) * MARGIN + BYTESTOLERANCE )
+            ).filter( i -> !i.isEmpty() ).collect( Collectors.joining( ", " ) );
+        }
+
+        /**
+         * checks a measured value
+         *
+         * @param p_name value name
+         * @param p_value measured value
+         * @param p_maximum maximum value
+         * @return violation message or empty string
+         */
+        @Nonnull
+        private String violation( @Nonnull final String p_name, final double p_value, final double p_maximum )
+        {
+            return p_value <= p_maximum
+                   ? ""
+                   : MessageFormat.format(
+                       "action [{0}] with {1} input of size {2,number,#} violates its contract: {3} {4,number,#} (maximum {5,number,#})",
+                       m_action, m_input.name().toLowerCase( Locale.ROOT ), m_size, p_name, p_value, p_maximum
+                   );
+        }
+
+        /**
+         * measures an action
+         *
+         * @param p_action action
+         * @param p_context execution context
+         * @param p_arguments arguments
+         * @return nanoseconds and allocated bytes of an execution
+         */
+        @Nonnull
+        private static double[] measure( @Nonnull final IAction p_action, @Nonnull final IContext p_context, @Nonnull final List<ITerm> p_arguments )
+        {
+            final List<ITerm> l_arguments = Collections.unmodifiableList( p_arguments );
+            IntStream.range( 0, WARMUP ).forEach( i -> execute( p_action, p_context, l_arguments ) );
+
+            long l_executions = 0;
+            final long l_bytes = CAllocation.current();
+            final long l_start = System.nanoTime();
+            while ( l_executions < MINIMALEXECUTIONS || System.nanoTime() - l_start < MINIMALTIME )
+            {
+                execute( p_action, p_context, l_arguments );
+                l_executions++;
+            }
+
+            return new double[]{
+                (double) ( System.nanoTime() - l_start ) / l_executions,
+                (double) ( CAllocation.current() - l_bytes ) / l_executions
+            };
+        }
+
+        /**
+         * executes an action, the returned fuzzy values are consumed
+         *
+         * @param p_action action
+         * @param p_context execution context
+         * @param p_arguments arguments
+         */
+        private static void execute( @Nonnull final IAction p_action, @Nonnull final IContext p_context, @Nonnull final List<ITerm> p_arguments )
+        {
+            p_action.execute( false, p_context, p_arguments, new ArrayList<>() ).forEach( i -> { } );
+        }
+    }
+}
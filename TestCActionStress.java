@@ -0,0 +1,287 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.common.CCommon;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * concurrent stress test of the actions with random terms, all threads share one
+ * execution context, the throughput of a single thread is compared with the throughput
+ * of all threads and the blocked and waited times of the threads are read from the
+ * thread bean, the report lists the actions ordered by the contention, the test runs
+ * only if the file agentbenchmark.conf exists on the main directory
+ */
+public final class TestCActionStress extends IBaseTest
+{
+    /**
+     * number of threads
+     */
+    private static final int THREADS = Integer.getInteger( "stress.threads", Runtime.getRuntime().availableProcessors() );
+    /**
+     * number of executions of each thread
+     */
+    private static final int EXECUTIONS = Integer.getInteger( "stress.executions", 2000 );
+    /**
+     * number of argument lists of each thread
+     */
+    private static final int INPUTS = 64;
+    /**
+     * random seed
+     */
+    private static final long SEED = Long.getLong( "stress.seed", 42 );
+    /**
+     * thread bean
+     */
+    private static final ThreadMXBean THREADBEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * stress test of all actions
+     *
+     * @throws Exception on agent or execution error
+     */
+    @Test
+    public void stress() throws Exception
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "stress test is disabled, create file agentbenchmark.conf" );
+        Assumptions.assumeTrue( THREADBEAN.isThreadContentionMonitoringSupported(), "thread contention monitoring is not supported" );
+        THREADBEAN.setThreadContentionMonitoringEnabled( true );
+
+        final IContext l_context = new CLocalContext( new CAgentGenerator().generatesingle() );
+        final ExecutorService l_executor = Executors.newFixedThreadPool( THREADS );
+        try
+        {
+            final List<CResult> l_results = new ArrayList<>();
+            for ( final IAction l_action : CCommon.actionsFromPackage().collect( Collectors.toList() ) )
+            {
+                final CResult l_single = run( l_action, l_context, l_executor, 1 );
+                final CResult l_concurrent = run( l_action, l_context, l_executor, THREADS );
+                l_results.add( l_concurrent.speedup( l_single ) );
+            }
+
+            System.out.println( MessageFormat.format(
+                "{0}\t{1}\t{2}\t{3}\t{4}\t{5}\n", "action", "speedup", "blocked ms", "waited ms", "error ratio", "seed " + SEED
+            ) + l_results.stream()
+                         .sorted( Comparator.comparingDouble( CResult::contention ).reversed().thenComparingDouble( i -> i.m_speedup ) )
+                         .map( CResult::toString )
+                         .collect( Collectors.joining( "\n" ) ) );
+        }
+        finally
+        {
+            l_executor.shutdownNow();
+        }
+    }
+
+    /**
+     * executes an action concurrently with random arguments
+     *
+     * @param p_action action
+     * @param p_context shared context
+     * @param p_executor executor
+     * @param p_threads number of threads
+     * @return result
+     * @throws InterruptedException on interruption
+     * @throws ExecutionException on execution error
+     */
+    @Nonnull
+    private static CResult run( @Nonnull final IAction p_action, @Nonnull final IContext p_context, @Nonnull final ExecutorService p_executor,
+                                @Nonnegative final int p_threads ) throws InterruptedException, ExecutionException
+    {
+        final CountDownLatch l_ready = new CountDownLatch( p_threads );
+        final CountDownLatch l_start = new CountDownLatch( 1 );
+        final LongAdder l_blocked = new LongAdder();
+        final LongAdder l_waited = new LongAdder();
+        final LongAdder l_errors = new LongAdder();
+
+        final List<Future<?>> l_futures = IntStream.range( 0, p_threads ).mapToObj( i -> p_executor.submit( () ->
+        {
+            final List<List<ITerm>> l_inputs;
+            try
+            {
+                final CTermGenerator l_generator = new CTermGenerator( SEED + i, 3, 8 );
+                l_inputs = IntStream.range( 0, INPUTS )
+                                    .mapToObj( j -> l_generator.arguments( p_action.minimalArgumentNumber() + j % 3 ) )
+                                    .collect( Collectors.toList() );
+            }
+            finally
+            {
+                l_ready.countDown();
+            }
+
+            l_start.await();
+            final ThreadInfo l_before = THREADBEAN.getThreadInfo( Thread.currentThread().getId() );
+            for ( int j = 0; j < EXECUTIONS; j++ )
+                try
+                {
+                    p_action.execute( false, p_context, l_inputs.get( j % INPUTS ), new ArrayList<>() ).forEach( k -> { } );
+                }
+                catch ( final RuntimeException l_exception )
+                {
+                    // random arguments are mostly invalid for the action, so errors are counted only
+                    l_errors.increment();
+                }
+            final ThreadInfo l_after = THREADBEAN.getThreadInfo( Thread.currentThread().getId() );
+
+            l_blocked.add( l_after.getBlockedTime() - l_before.getBlockedTime() );
+            l_waited.add( l_after.getWaitedTime() - l_before.getWaitedTime() );
+            return null;
+        } ) ).collect( Collectors.toList() );
+
+        // the clock starts after all workers have built their inputs
+        l_ready.await();
+        final long l_time = System.nanoTime();
+        l_start.countDown();
+        for ( final Future<?> l_future : l_futures )
+            l_future.get();
+
+        return new CResult(
+            p_action.name().toString(),
+            (double) p_threads * EXECUTIONS / ( System.nanoTime() - l_time ),
+            l_blocked.sum(),
+            l_waited.sum(),
+            (double) l_errors.sum() / p_threads / EXECUTIONS
+        );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * stress result of an action
+     */
+    private static final class CResult
+    {
+        /**
+         * action name
+         */
+        private final String m_action;
+        /**
+         * executions per nanosecond
+         */
+        private final double m_throughput;
+        /**
+         * blocked time in milliseconds
+         */
+        private final long m_blocked;
+        /**
+         * waited time in milliseconds
+         */
+        private final long m_waited;
+        /**
+         * ratio of failed executions
+         */
+        private final double m_errors;
+        /**
+         * throughput ratio of the concurrent to the single run
+         */
+        private final double m_speedup;
+
+        /**
+         * ctor
+         *
+         * @param p_action action name
+         * @param p_throughput executions per nanosecond
+         * @param p_blocked blocked time in milliseconds
+         * @param p_waited waited time in milliseconds
+         * @param p_errors ratio of failed executions
+         */
+        CResult( @Nonnull final String p_action, final double p_throughput, final long p_blocked, final long p_waited, final double p_errors )
+        {
+            this( p_action, p_throughput, p_blocked, p_waited, p_errors, 1 );
+        }
+
+        /**
+         * ctor
+         *
+         * @param p_action action name
+         * @param p_throughput executions per nanosecond
+         * @param p_blocked blocked time in milliseconds
+         * @param p_waited waited time in milliseconds
+         * @param p_errors ratio of failed executions
+         * @param p_speedup throughput ratio of the concurrent to the single run
+         */
+        private CResult( @Nonnull final String p_action, final double p_throughput, final long p_blocked, final long p_waited, final double p_errors,
+                         final double p_speedup )
+        {
+            m_action = p_action;
+            m_throughput = p_throughput;
+            m_blocked = p_blocked;
+            m_waited = p_waited;
+            m_errors = p_errors;
+            m_speedup = p_speedup;
+        }
+
+        /**
+         * returns the result with the speedup to a single thread run
+         *
+         * @param p_single single thread result
+         * @return result
+         */
+        @Nonnull
+        CResult speedup( @Nonnull final CResult p_single )
+        {
+            return new CResult( m_action, m_throughput, m_blocked, m_waited, m_errors, m_throughput / p_single.m_throughput );
+        }
+
+        /**
+         * returns the contention time
+         *
+         * @return blocked and waited time in milliseconds
+         */
+        double contention()
+        {
+            return m_blocked + m_waited;
+        }
+
+        @Override
+        public String toString()
+        {
+            return MessageFormat.format(
+                "{0}\t{1,number,#.##}\t{2,number,#}\t{3,number,#}\t{4,number,#.##}", m_action, m_speedup, m_blocked, m_waited, m_errors
+            );
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ILiteral;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.text.MessageFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of the affinity scheduler against the common fork-join pool, the
+ * asl scripts are replicated and run concurrently, the agents share an additional
+ * budget of beliefs, so the agent state does not fit into the cache of one core
+ * and the memory does not grow with the replicas, the benchmark runs only if the
+ * file agentbenchmark.conf exists on the main directory
+ */
+public final class TestCAffinityScheduler extends IBaseTest
+{
+    /**
+     * number of beliefs of all agents of a run, two runs exist at the same time
+     */
+    private static final int BELIEFS = Integer.getInteger( "benchmark.affinity.beliefs", 500000 );
+    /**
+     * minimal number of remaining agents of a worker to steal
+     */
+    private static final int IMBALANCE = Integer.getInteger( "benchmark.affinity.imbalance", 4 );
+    /**
+     * number of measurements of each scheduler, the best one is reported
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * returns the number of replicas of each script
+     *
+     * @return replicas
+     */
+    private static Stream<Integer> generate()
+    {
+        return Stream.of( 1, 10, 100 );
+    }
+
+    /**
+     * compares the affinity scheduler with the common fork-join pool
+     *
+     * @param p_replicas number of replicas of each script
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void affinity( @Nonnegative final int p_replicas ) throws Exception
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final List<CAslScript> l_scripts = TestCAsl.scripts().collect( Collectors.toList() );
+        Assumptions.assumeFalse( l_scripts.isEmpty(), "asl files does not exist" );
+
+        final int l_rounds = l_scripts.stream().mapToInt( CAslScript::iteration ).max().orElse( 0 );
+        final int l_workers = Runtime.getRuntime().availableProcessors();
+        final int l_beliefs = Math.max( 1, BELIEFS / ( l_scripts.size() * p_replicas ) );
+
+        double l_forkjoin = 0;
+        double l_affinity = 0;
+        long l_stolen = 0;
+
+        for ( int i = 0; i < REPETITIONS; i++ )
+        {
+            final CRun l_forkjoinrun = new CRun( l_scripts, p_replicas, l_beliefs );
+            final long l_forkjoinstart = System.nanoTime();
+            final long l_forkjoincycles = IntStream.range( 0, l_rounds )
+                                                   .mapToLong( j -> l_forkjoinrun.m_agents.parallelStream().filter( l_forkjoinrun ).count() )
+                                                   .sum();
+            l_forkjoin = Math.max( l_forkjoin, l_forkjoincycles * 1e9 / ( System.nanoTime() - l_forkjoinstart ) );
+
+            final CRun l_affinityrun = new CRun( l_scripts, p_replicas, l_beliefs );
+            try ( CAffinityScheduler l_scheduler = new CAffinityScheduler( l_workers, IMBALANCE, l_affinityrun ) )
+            {
+                final long l_affinitystart = System.nanoTime();
+                final long l_affinitycycles = l_scheduler.execute( l_affinityrun.m_agents, l_rounds );
+                l_affinity = Math.max( l_affinity, l_affinitycycles * 1e9 / ( System.nanoTime() - l_affinitystart ) );
+                l_stolen = l_scheduler.stolen();
+            }
+
+            Assertions.assertEquals( l_forkjoinrun.tests(), l_affinityrun.tests(), "number of tests" );
+        }
+
+        System.out.println( MessageFormat.format(
+            "scripts: {0}\treplicas: {1}\tbeliefs per agent: {2}\tfork-join cycles/sec: {3,number,#}\taffinity cycles/sec: {4,number,#}\tspeedup: {5,number,#.##}\tstolen: {6}",
+            l_scripts.size(),
+            p_replicas,
+            l_beliefs,
+            l_forkjoin,
+            l_affinity,
+            l_affinity / l_forkjoin,
+            l_stolen
+        ) );
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * concurrent run of the replicated scripts, each agent
+     * is cycled for the number of iterations of its script
+     */
+    private static final class CRun implements Predicate<IAgent<?>>
+    {
+        /**
+         * agents
+         */
+        private final List<IAgent<?>> m_agents;
+        /**
+         * remaining cycles of each agent
+         */
+        private final Map<IAgent<?>, AtomicInteger> m_remaining = new IdentityHashMap<>();
+        /**
+         * counter of successful test results
+         */
+        private final AtomicInteger m_tests = new AtomicInteger();
+
+        /**
+         * ctor
+         *
+         * @param p_scripts scripts
+         * @param p_replicas number of replicas of each script
+         * @param p_beliefs number of additional beliefs of each agent
+         */
+        CRun( @Nonnull final List<CAslScript> p_scripts, @Nonnegative final int p_replicas, @Nonnegative final int p_beliefs )
+        {
+            m_agents = p_scripts.stream()
+                                .flatMap( i -> IntStream.range( 0, p_replicas ).mapToObj( j ->
+                                {
+                                    final IAgent<?> l_agent = TestCAsl.agent( i.stream(), m_tests );
+                                    l_agent.beliefbase().add(
+                                        IntStream.range( 0, p_beliefs ).mapToObj( k -> CLiteral.of( "affinity", CRawTerm.of( (double) k ) ) ).toArray( ILiteral[]::new )
+                                    );
+                                    m_remaining.put( l_agent, new AtomicInteger( i.iteration() ) );
+                                    return l_agent;
+                                } ) )
+                                .collect( Collectors.toList() );
+        }
+
+        @Override
+        public boolean test( @Nonnull final IAgent<?> p_agent )
+        {
+            return m_remaining.get( p_agent ).getAndDecrement() > 0 && agentcycle( p_agent );
+        }
+
+        /**
+         * returns the number of successful test results
+         *
+         * @return number of tests
+         */
+        @Nonnegative
+        int tests()
+        {
+            return m_tests.get();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.testing.action.CTestSleep;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of agent schedulers, the cycle loop of each agent runs
+ * on a virtual thread or on a pool of platform threads, the agents
+ * block within each cycle, the benchmark runs only if the file
+ * agentbenchmark.conf exists on the main directory
+ */
+public final class TestCAgentScheduler extends IBaseTest
+{
+    /**
+     * number of cycles of each agent
+     */
+    private static final int CYCLES = Integer.getInteger( "benchmark.scheduler.cycles", 5 );
+    /**
+     * maximum number of agents
+     */
+    private static final int MAXIMUM = Integer.getInteger( "benchmark.scheduler.maximum", 100000 );
+    /**
+     * number of platform threads
+     */
+    private static final int THREADS = Integer.getInteger( "benchmark.scheduler.threads", 256 );
+
+    /**
+     * returns the number of agents and the blocking time
+     *
+     * @return test arguments
+     */
+    private static Stream<Arguments> generate()
+    {
+        return Stream.of( 10000, 100000, 1000000 )
+                     .filter( i -> i <= MAXIMUM )
+                     .flatMap( i -> Stream.of( 0, 1, 10 ).map( j -> Arguments.of( i, j ) ) );
+    }
+
+    /**
+     * compares virtual threads with platform threads
+     *
+     * @param p_agents number of agents
+     * @param p_blocking blocking time of each cycle in milliseconds
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void scheduler( @Nonnegative final int p_agents, @Nonnegative final int p_blocking ) throws Exception
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final Optional<CThreadScheduler> l_virtual = CThreadScheduler.virtual( IBaseTest::agentcycle );
+        Assumptions.assumeTrue( l_virtual.isPresent(), "virtual threads are not supported" );
+
+        final double l_platform;
+        try ( CThreadScheduler l_scheduler = CThreadScheduler.platform( THREADS, IBaseTest::agentcycle ) )
+        {
+            l_platform = measure( l_scheduler, agents( p_agents, p_blocking ) );
+        }
+
+        final double l_virtualrate;
+        try ( CThreadScheduler l_scheduler = l_virtual.get() )
+        {
+            l_virtualrate = measure( l_scheduler, agents( p_agents, p_blocking ) );
+        }
+
+        System.out.println( MessageFormat.format(
+            "agents: {0}\tblocking: {1} ms\tplatform cycles/sec: {2,number,#}\tvirtual cycles/sec: {3,number,#}\tspeedup: {4,number,#.##}",
+            p_agents,
+            p_blocking,
+            l_platform,
+            l_virtualrate,
+            l_virtualrate / l_platform
+        ) );
+    }
+
+    /**
+     * executes the cycles and returns the cycle rate
+     *
+     * @param p_scheduler scheduler
+     * @param p_agents agents
+     * @return cycles per second
+     * @throws InterruptedException on interrupt
+     */
+    private static double measure( @Nonnull final IAgentScheduler p_scheduler, @Nonnull final List<IAgent<?>> p_agents ) throws InterruptedException
+    {
+        final long l_start = System.nanoTime();
+        final long l_cycles = p_scheduler.execute( p_agents, CYCLES );
+        final long l_time = System.nanoTime() - l_start;
+
+        Assertions.assertEquals( (long) p_agents.size() * CYCLES, l_cycles, "number of successful cycles" );
+        return l_cycles * 1e9 / l_time;
+    }
+
+    /**
+     * generates agents, which block in each cycle
+     *
+     * @param p_agents number of agents
+     * @param p_blocking blocking time in milliseconds
+     * @return agents
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static List<IAgent<?>> agents( @Nonnegative final int p_agents, @Nonnegative final int p_blocking ) throws Exception
+    {
+        final CAgentGenerator l_generator = new CAgentGenerator(
+            MessageFormat.format( "!main.\n\n+!main <-\n    test/sleep( {0} );\n    !main.\n", p_blocking ),
+            new CActionStaticGenerator( Stream.of( new CTestSleep() ) ),
+            ILambdaStreamingGenerator.EMPTY
+        );
+
+        return IntStream.range( 0, p_agents ).mapToObj( i -> l_generator.generatesingle() ).collect( Collectors.toList() );
+    }
+}
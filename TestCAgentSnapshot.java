@@ -0,0 +1,250 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.common.CPath;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ILiteral;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * test of the binary agent snapshot on the asl corpus,
+ * if a file agentbenchmark.conf exists on the main directory
+ * the write and restore times are compared with the java serialization
+ */
+public final class TestCAgentSnapshot extends IBaseTest
+{
+
+    /**
+     * test snapshot and restore of the agent beliefs
+     *
+     * @param p_script asl script
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "org.lightjason.agentspeak.testing.TestCAsl#generate" )
+    public void snapshot( @Nonnull final CAslScript p_script ) throws Exception
+    {
+        Assumptions.assumeFalse( p_script.empty(), "asl files does not exist" );
+        Assertions.assertTrue( p_script.error().isEmpty(), p_script.error() );
+
+        final IAgent<?> l_agent = TestCAsl.uninstrumented( p_script.stream(), new AtomicInteger() );
+        IntStream.range( 0, p_script.iteration() )
+                 .forEach( i -> agentcycle( l_agent ) );
+
+        final Path l_file = Files.createTempFile( "agent", ".snapshot" );
+        try
+        {
+            final long l_start = System.nanoTime();
+            final long l_size = CAgentSnapshot.write( l_agent, l_file );
+            final long l_snapshottime = System.nanoTime() - l_start;
+
+            final IAgent<?> l_fresh = TestCAsl.uninstrumented( p_script.stream(), new AtomicInteger() );
+            final long l_restorestart = System.nanoTime();
+            final IAgent<?> l_restored = CAgentSnapshot.restore( l_fresh, l_file );
+            final long l_restoretime = System.nanoTime() - l_restorestart;
+
+            Assertions.assertEquals( beliefs( l_agent ), beliefs( l_restored ), MessageFormat.format( "restored beliefs of {0}", p_script ) );
+
+            if ( BENCHMARKENABLE )
+                System.out.println( MessageFormat.format(
+                    "{0}: snapshot {1} bytes, write {2} us, restore {3} us, java serialization {4}",
+                    p_script,
+                    l_size,
+                    TimeUnit.NANOSECONDS.toMicros( l_snapshottime ),
+                    TimeUnit.NANOSECONDS.toMicros( l_restoretime ),
+                    serialization( l_agent )
+                ) );
+        }
+        finally
+        {
+            Files.deleteIfExists( l_file );
+        }
+    }
+
+    /**
+     * test that a truncated or corrupt snapshot fails with an io error
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void corrupt() throws Exception
+    {
+        final IAgent<?> l_agent = new CAgentGenerator( "!main.\n\n+!main <-\n    X = 1.\n" ).generatesingle();
+        l_agent.beliefbase().add(
+            IntStream.range( 0, 10 ).mapToObj( i -> CLiteral.of( "item", CRawTerm.of( (double) i ) ) ).toArray( ILiteral[]::new )
+        );
+
+        final Path l_file = Files.createTempFile( "agent", ".snapshot" );
+        try
+        {
+            CAgentSnapshot.write( l_agent, l_file );
+            final byte[] l_content = Files.readAllBytes( l_file );
+
+            // truncated within the last literal
+            Files.write( l_file, Arrays.copyOf( l_content, l_content.length - 2 ) );
+            Assertions.assertThrows( IOException.class, () -> CAgentSnapshot.read( l_file ) );
+
+            // truncated within the length of the first literal
+            Files.write( l_file, Arrays.copyOf( l_content, 2 * Integer.BYTES + 2 ) );
+            Assertions.assertThrows( IOException.class, () -> CAgentSnapshot.read( l_file ) );
+
+            // corrupt functor length of the first literal
+            final byte[] l_corrupt = l_content.clone();
+            ByteBuffer.wrap( l_corrupt ).putInt( 2 * Integer.BYTES + 1, Integer.MIN_VALUE );
+            Files.write( l_file, l_corrupt );
+            Assertions.assertThrows( IOException.class, () -> CAgentSnapshot.read( l_file ) );
+
+            // corrupt number of literals
+            final byte[] l_count = l_content.clone();
+            ByteBuffer.wrap( l_count ).putInt( Integer.BYTES, Integer.MAX_VALUE );
+            Files.write( l_file, l_count );
+            Assertions.assertThrows( IOException.class, () -> CAgentSnapshot.read( l_file ) );
+        }
+        finally
+        {
+            Files.deleteIfExists( l_file );
+        }
+    }
+
+    /**
+     * test that the typed values of the beliefs are restored
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void terms() throws Exception
+    {
+        final IAgent<?> l_agent = new CAgentGenerator( "!main.\n\n+!main <-\n    X = 1.\n" ).generatesingle();
+        l_agent.beliefbase().add(
+            CLiteral.of(
+                "item",
+                CRawTerm.of( "text with \"quotes\", commas ( and ) brackets" ),
+                CRawTerm.of( true ),
+                CRawTerm.of( 3L ),
+                CLiteral.of( "inner", CRawTerm.of( 1.5 ) )
+            ),
+            CLiteral.of( false, true, CPath.of( "sub/item" ), CRawTerm.of( -2.0 ) )
+        );
+
+        final Path l_file = Files.createTempFile( "agent", ".snapshot" );
+        try
+        {
+            CAgentSnapshot.write( l_agent, l_file );
+            Assertions.assertEquals(
+                beliefs( l_agent ),
+                CAgentSnapshot.read( l_file ).stream().map( Object::toString ).collect( Collectors.toSet() )
+            );
+        }
+        finally
+        {
+            Files.deleteIfExists( l_file );
+        }
+    }
+
+    /**
+     * returns the beliefs of an agent as strings
+     *
+     * @param p_agent agent
+     * @return belief set
+     */
+    @Nonnull
+    private static Set<String> beliefs( @Nonnull final IAgent<?> p_agent )
+    {
+        return p_agent.beliefbase().stream().map( Object::toString ).collect( Collectors.toSet() );
+    }
+
+    /**
+     * measures the java serialization and deserialization of an agent
+     *
+     * @param p_agent agent
+     * @return result description
+     */
+    @Nonnull
+    private static String serialization( @Nonnull final IAgent<?> p_agent )
+    {
+        final ByteArrayOutputStream l_bytes = new ByteArrayOutputStream();
+        final long l_writestart = System.nanoTime();
+
+        try
+        (
+            final ObjectOutputStream l_stream = new ObjectOutputStream( l_bytes )
+        )
+        {
+            l_stream.writeObject( p_agent );
+        }
+        catch ( final IOException l_exception )
+        {
+            return MessageFormat.format( "failed: {0}", l_exception.getMessage() );
+        }
+
+        final long l_writetime = System.nanoTime() - l_writestart;
+        final long l_readstart = System.nanoTime();
+
+        try
+        (
+            final ObjectInputStream l_stream = new ObjectInputStream( new ByteArrayInputStream( l_bytes.toByteArray() ) )
+        )
+        {
+            l_stream.readObject();
+        }
+        catch ( final IOException | ClassNotFoundException l_exception )
+        {
+            return MessageFormat.format(
+                "{0} bytes, write {1} us, read failed: {2}", l_bytes.size(), TimeUnit.NANOSECONDS.toMicros( l_writetime ), l_exception.getMessage()
+            );
+        }
+
+        return MessageFormat.format(
+            "{0} bytes, write {1} us, read {2} us",
+            l_bytes.size(),
+            TimeUnit.NANOSECONDS.toMicros( l_writetime ),
+            TimeUnit.NANOSECONDS.toMicros( System.nanoTime() - l_readstart )
+        );
+    }
+}
@@ -23,13 +23,16 @@
 
 package org.lightjason.agentspeak.testing;
 
-import org.apache.commons.io.IOUtils;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.action.IAction;
 import org.lightjason.agentspeak.action.IBaseAction;
 import org.lightjason.agentspeak.agent.IAgent;
 import org.lightjason.agentspeak.common.CCommon;
@@ -39,8 +42,8 @@ import org.lightjason.agentspeak.generator.CActionStaticGenerator;
 import org.lightjason.agentspeak.generator.CLambdaStreamingStaticGenerator;
 import org.lightjason.agentspeak.language.ITerm;
 import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
 import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
-import org.lightjason.agentspeak.language.variable.CConstant;
 import org.lightjason.agentspeak.testing.action.CTestAnd;
 import org.lightjason.agentspeak.testing.action.CTestEqual;
 import org.lightjason.agentspeak.testing.action.CTestIs;
@@ -52,20 +55,22 @@ import org.lightjason.agentspeak.testing.action.CTestToString;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
-import java.io.FileInputStream;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
-import java.util.Arrays;
+import java.text.ParseException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.LogManager;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -77,21 +82,75 @@ import java.util.stream.Stream;
 public final class TestCAsl extends IBaseTest
 {
     /**
-     * tag of iteration
+     * index of the shard, which is executed (can be set to the fork number of forked jvms)
      */
-    private static final String ITERATIONNTAG = "@iteration";
+    private static final int SHARD = Integer.getInteger( "asl.shard.index", 0 );
     /**
-     * regex for iteration
+     * number of shards
      */
-    private static final Pattern ITERATION = Pattern.compile( ITERATIONNTAG + "\\s+\\d+" );
+    private static final int SHARDS = Integer.getInteger( "asl.shard.count", 1 );
     /**
-     * tag of test results
+     * execution times of the asl files, the id of the run (asl.shard.run) must be equal on all
+     * shards of a run and unique between runs, so the shard files of an aborted run are not merged
      */
-    private static final String TESTCOUNTTAG = "@testcount";
+    private static final CAslTiming TIMING = new CAslTiming(
+        Paths.get( "asltiming.properties" ), root(), SHARD, SHARDS, System.getProperty( "asl.shard.run", "local" )
+    );
     /**
-     * regex for iteration
+     * results of the last successful runs
      */
-    private static final Pattern TESTCOUNT = Pattern.compile( TESTCOUNTTAG + "\\s+\\d+" );
+    private static final CAslResultCache RESULTS = new CAslResultCache( Paths.get( "aslresult.properties" ), IAgent.class, TestCAsl.class );
+    /**
+     * runs all asl files without using the result cache
+     */
+    private static final boolean FULLRUN = Boolean.getBoolean( "asl.fullrun" );
+    /**
+     * runs the generated scripts on the first shard in addition to the asl files
+     */
+    private static final boolean GENERATED = Boolean.getBoolean( "asl.generated" );
+    /**
+     * watchdog of the agent cycles (threshold of slow cycles and hard timeout in milliseconds,
+     * the cycles run on virtual threads with -Dasl.virtualthreads=true)
+     */
+    private static final CCycleWatchdog WATCHDOG = new CCycleWatchdog(
+        Long.getLong( "asl.cycle.threshold", 1000 ),
+        Long.getLong( "asl.cycle.timeout", 60000 ),
+        Boolean.getBoolean( "asl.virtualthreads" )
+    );
+    /**
+     * garbage collection report of the scripts with at least asl.gc.cycles cycles
+     */
+    private static final CGarbageCollectionReport GARBAGECOLLECTION = new CGarbageCollectionReport( Long.getLong( "asl.gc.cycles", 1000 ) );
+    /**
+     * statistic of the action calls
+     */
+    private static final CActionStatistic ACTIONSTATISTIC = new CActionStatistic();
+    /**
+     * flight recording of the run, which is enabled by the file name of the system property asl.jfr
+     */
+    private static final Recording RECORDING = recording( System.getProperty( "asl.jfr", "" ) );
+    /**
+     * plan profiler, which is enabled by the file prefix of the system property asl.profile
+     */
+    private static final String PROFILE = System.getProperty( "asl.profile", "" );
+    /**
+     * plan profiler or null
+     */
+    private static final CPlanProfiler PROFILER = PROFILE.isEmpty() ? null : new CPlanProfiler();
+    /**
+     * timeline file of the system property asl.trace
+     */
+    private static final String TRACEFILE = System.getProperty( "asl.trace", "" );
+    /**
+     * timeline recorder or null, the number of spans is limited by the system property asl.trace.capacity
+     */
+    private static final CTraceRecorder TRACE = TRACEFILE.isEmpty() ? null : new CTraceRecorder( Integer.getInteger( "asl.trace.capacity", 1000000 ) );
+    /**
+     * constants of the plan instantiations
+     */
+    private static final CConstantVariableBuilder VARIABLES = new CConstantVariableBuilder()
+                                                                  .constant( "MyConstInt", 123 )
+                                                                  .constant( "MyConstString", "here is a test string" );
     /**
      * iteration counter
      */
@@ -113,114 +172,306 @@ public final class TestCAsl extends IBaseTest
     }
 
     /**
-     * data provider for defining asl files
-     * @return triple of test-cases (asl file, number of iterations, expected log items)
+     * stores the execution times, results, plan profile and timeline, stops the watchdog and the flight
+     * recording and prints the garbage collection and action reports if benchmarking is enabled
+     */
+    @AfterAll
+    public static void store()
+    {
+        WATCHDOG.close();
+        if ( Objects.nonNull( RECORDING ) )
+        {
+            RECORDING.stop();
+            RECORDING.close();
+        }
+
+        if ( BENCHMARKENABLE )
+        {
+            System.out.println( GARBAGECOLLECTION.report() );
+            System.out.println( ACTIONSTATISTIC.report() );
+        }
+
+        try
+        {
+            if ( Objects.nonNull( PROFILER ) )
+                for ( final CPlanProfiler.EValue l_value : CPlanProfiler.EValue.values() )
+                    PROFILER.store( Paths.get( MessageFormat.format( "{0}.{1}.collapsed", PROFILE, l_value.name().toLowerCase( Locale.ROOT ) ) ), l_value );
+
+            if ( Objects.nonNull( TRACE ) )
+            {
+                TRACE.store( Paths.get( TRACEFILE ) );
+                if ( TRACE.dropped() > 0 )
+                    System.err.println( MessageFormat.format( "timeline is truncated, {0} spans are dropped", TRACE.dropped() ) );
+            }
+
+            TIMING.store();
+            RESULTS.store();
+        }
+        catch ( final IOException l_exception )
+        {
+            System.err.println( MessageFormat.format( "execution times, results, profile or timeline cannot be stored: {0}", l_exception.getMessage() ) );
+        }
+    }
+
+    /**
+     * data provider for defining asl files, the files are ordered
+     * longest-first by the recorded execution times, split into shards
+     * and loaded in parallel, the generated scripts are appended if the
+     * system property asl.generated is set
+     * @return test-cases with asl file, number of iterations and expected log items
      */
     public static Stream<Arguments> generate()
     {
-        final Arguments[] l_arguments;
+        // a shard without files gets an empty script, which is skipped, because junit fails on an empty source
+        final List<CAslScript> l_scripts = Stream.concat(
+            CAslScript.load( TIMING.schedule( files() ) ).stream(),
+            GENERATED && SHARD == 0 ? generated() : Stream.empty()
+        ).collect( Collectors.toList() );
+
+        return ( l_scripts.isEmpty() ? Stream.of( CAslScript.EMPTY ) : l_scripts.stream() ).map( Arguments::of );
+    }
+
+    /**
+     * loads all asl files without sharding, files which cannot be read are skipped
+     *
+     * @return scripts
+     */
+    static Stream<CAslScript> scripts()
+    {
+        return CAslScript.load( files() ).stream().filter( i -> i.error().isEmpty() );
+    }
+
+    /**
+     * returns the root directory of the asl files
+     *
+     * @return asl resource directory
+     */
+    @Nonnull
+    private static Path root()
+    {
+        return Paths.get( TestCAsl.class.getClassLoader().getResource( "" ).getPath(), "asl" );
+    }
+
+    /**
+     * returns the asl files of the resource directory
+     *
+     * @return asl files or empty list if the directory cannot be read
+     */
+    @Nonnull
+    private static List<String> files()
+    {
         try
         (
-            final Stream<Path> l_walk = Files.walk(
-                Paths.get( TestCAsl.class.getClassLoader().getResource( "" ).getPath(), "asl" )
-            )
+            final Stream<Path> l_walk = Files.walk( root() )
         )
         {
-            l_arguments = l_walk.filter( Files::isRegularFile )
+            return l_walk.filter( Files::isRegularFile )
                          .map( Path::toString )
                          .filter( i -> i.endsWith( ".asl" ) )
-                         .map( Arguments::of )
-                         .toArray( Arguments[]::new );
-
+                         .collect( Collectors.toList() );
         }
         catch ( final IOException l_exception )
         {
-            return Stream.of( Arguments.of( "" ) );
+            return Collections.emptyList();
         }
+    }
 
-        return Arrays.stream( l_arguments );
+    /**
+     * generated scripts of growing size (plans, rule depth, beliefs, lambda size, branching)
+     *
+     * @return generated scripts
+     */
+    static Stream<CAslScript> generated()
+    {
+        return Stream.of(
+            new CAslGenerator( 1, 1, 1, 1, 1 ),
+            new CAslGenerator( 10, 5, 10, 10, 2 ),
+            new CAslGenerator( 100, 10, 100, 100, 4 ),
+            new CAslGenerator( 1000, 20, 1000, 1000, 4 )
+        ).map( CAslGenerator::script );
     }
 
 
     /**
-     * test for default generators and configuration
+     * test for default generators and configuration, files which are unchanged
+     * since the last successful run are skipped unless the system property
+     * asl.fullrun is set or the run is instrumented
      *
-     * @param p_file tripel of asl code, cycles and expected success calls
+     * @param p_script asl script with cycles and expected success calls
      */
     @ParameterizedTest
     @MethodSource( "generate" )
-    public void testASLDefault( @Nonnull final String p_file )
+    public void testASLDefault( @Nonnull final CAslScript p_script )
     {
-        Assumptions.assumeFalse( p_file.isEmpty(), "asl files does not exist" );
+        Assumptions.assumeFalse( p_script.empty(), "asl files does not exist" );
+        Assertions.assertTrue( p_script.error().isEmpty(), p_script.error() );
+        Assumptions.assumeFalse(
+            !FULLRUN && !instrumented() && RESULTS.passed( p_script.file(), p_script.content() ),
+            "asl file and classpath are unchanged since the last successful run"
+        );
 
+        final long l_start = System.nanoTime();
         final IAgent<?> l_agent;
-        final int l_iteration;
-        final int l_testcount;
 
         try
-        (
-            final InputStream l_stream = new FileInputStream( p_file )
-        )
         {
-            // convert source to stream
-            final String l_source = IOUtils.toString( l_stream, Charset.defaultCharset() );
-
-            // get test results from source
-            final Matcher l_iterationmatch = ITERATION.matcher( l_source );
-            l_iteration = l_iterationmatch.find()
-                          ? Integer.parseInt( l_iterationmatch.group( 0 ).replace( ITERATIONNTAG, "" ).trim() )
-                          : 1;
-
-            final Matcher l_testcountmatcher = TESTCOUNT.matcher( l_source );
-            l_testcount = l_testcountmatcher.find()
-                          ? Integer.parseInt( l_testcountmatcher.group( 0 ).replace( TESTCOUNTTAG, "" ).trim() )
-                          : 0;
-
-            // generate agent
-            l_agent = new CAgentGenerator(
-                l_source,
-
-                new CActionStaticGenerator(
-                    Stream.concat(
-                        Stream.of(
-                            new CTestPrint( PRINTENABLE ),
-                            new CTestResult(),
-                            new CTestEqual(),
-                            new CTestToString(),
-                            new CTestIs(),
-                            new CTestListGet(),
-                            new CTestListRange(),
-                            new CTestAnd(),
-                            new CTestOr()
-                        ),
-                        CCommon.actionsFromPackage()
-                    )
-                ),
-
-                new CLambdaStreamingStaticGenerator( CCommon.lambdastreamingFromPackage() ),
-
-                ( p_agent, p_runningcontext ) -> Stream.of(
-                    new CConstant<>( "MyConstInt", 123 ),
-                    new CConstant<>( "MyConstString", "here is a test string" )
-                )
-            ).generatesingle();
+            l_agent = agent( p_script.stream(), m_count );
         }
         catch ( final Exception l_exception )
         {
             l_exception.printStackTrace();
-            Assertions.fail( p_file );
+            Assertions.fail( p_script.file() );
             return;
         }
 
-        IntStream.range( 0, l_iteration )
-                 .forEach( i -> agentcycle( l_agent ) );
+        final CGarbageCollectionReport.CSnapshot l_garbagecollection = GARBAGECOLLECTION.snapshot();
+        IntStream.range( 0, p_script.iteration() )
+                 .forEach( i -> WATCHDOG.cycle( l_agent, () -> cycle( l_agent ) ) );
+
+        GARBAGECOLLECTION.record( p_script.file(), p_script.iteration(), l_garbagecollection );
+        TIMING.record( p_script.file(), System.nanoTime() - l_start );
 
         Assertions.assertEquals(
-            l_testcount,
+            p_script.testcount(),
             m_count.get(),
-            MessageFormat.format( "{0} {1}", "number of tests", p_file )
+            MessageFormat.format( "{0} {1}", "number of tests", p_script.file() )
         );
 
+        RESULTS.success( p_script.file(), p_script.content() );
+
+    }
+
+    /**
+     * checks if the run is instrumented, the reports, profiles and timelines
+     * must cover all files, so the result cache is not used
+     *
+     * @return true if benchmark, flight recording, profile or timeline is enabled
+     */
+    private static boolean instrumented()
+    {
+        return BENCHMARKENABLE || Objects.nonNull( RECORDING ) || Objects.nonNull( PROFILER ) || Objects.nonNull( TRACE );
+    }
+
+    /**
+     * executes an agent cycle with the enabled recorders
+     *
+     * @param p_agent agent
+     * @return agent
+     * @throws Exception on execution error
+     */
+    private static IAgent<?> cycle( @Nonnull final IAgent<?> p_agent ) throws Exception
+    {
+        final Callable<IAgent<?>> l_cycle = () -> CFlightRecorder.call( p_agent );
+        final Callable<IAgent<?>> l_profiled = Objects.isNull( PROFILER ) ? l_cycle : () -> PROFILER.cycle( l_cycle );
+        return Objects.isNull( TRACE ) ? l_profiled.call() : TRACE.cycle( p_agent, l_profiled );
+    }
+
+    /**
+     * generates an agent with the default test actions, lambdas and variables
+     *
+     * @param p_asl asl code
+     * @param p_count counter of successful test results
+     * @return agent
+     */
+    @Nonnull
+    static IAgent<?> agent( @Nonnull final InputStream p_asl, @Nonnull final AtomicInteger p_count )
+    {
+        return new CAgentGenerator(
+            p_asl,
+
+            new CActionStaticGenerator(
+                actions( p_count ).map( i -> Objects.isNull( RECORDING ) ? i : CFlightRecorder.action( i ) )
+                                  .map( i -> BENCHMARKENABLE ? ACTIONSTATISTIC.decorate( i ) : i )
+                                  .map( i -> Objects.isNull( PROFILER ) ? i : PROFILER.decorate( i ) )
+                                  .map( i -> Objects.isNull( TRACE ) ? i : TRACE.decorate( i ) )
+            ),
+
+            new CLambdaStreamingStaticGenerator( CCommon.lambdastreamingFromPackage() ),
+
+            variables()
+        ).generatesingle();
+    }
+
+    /**
+     * generates an agent without recorders and statistics, so
+     * other tests do not change the reports of the asl tests
+     *
+     * @param p_asl asl code
+     * @param p_count counter of successful test results
+     * @return agent
+     */
+    @Nonnull
+    static IAgent<?> uninstrumented( @Nonnull final InputStream p_asl, @Nonnull final AtomicInteger p_count )
+    {
+        return new CAgentGenerator(
+            p_asl,
+            new CActionStaticGenerator( actions( p_count ) ),
+            new CLambdaStreamingStaticGenerator( CCommon.lambdastreamingFromPackage() ),
+            VARIABLES
+        ).generatesingle();
+    }
+
+    /**
+     * returns the actions of the asl tests
+     *
+     * @param p_count counter of successful test results
+     * @return actions
+     */
+    @Nonnull
+    private static Stream<IAction> actions( @Nonnull final AtomicInteger p_count )
+    {
+        return Stream.concat(
+            Stream.of(
+                new CTestPrint( PRINTENABLE ),
+                new CTestResult( p_count ),
+                new CTestEqual(),
+                new CTestToString(),
+                new CTestIs(),
+                new CTestListGet(),
+                new CTestListRange(),
+                new CTestAnd(),
+                new CTestOr()
+            ),
+            CCommon.actionsFromPackage()
+        );
+    }
+
+    /**
+     * returns the variable builder with the enabled recorders
+     *
+     * @return variable builder
+     */
+    @Nonnull
+    private static IVariableBuilder variables()
+    {
+        final IVariableBuilder l_variables = Objects.isNull( PROFILER ) ? VARIABLES : PROFILER.decorate( VARIABLES );
+        return Objects.isNull( RECORDING ) ? l_variables : CFlightRecorder.variablebuilder( l_variables );
+    }
+
+    /**
+     * starts a flight recording with the profile settings
+     *
+     * @param p_file destination file, an empty name disables the recording
+     * @return recording or null
+     */
+    @Nullable
+    private static Recording recording( @Nonnull final String p_file )
+    {
+        if ( p_file.isEmpty() )
+            return null;
+
+        try
+        {
+            final Recording l_recording = new Recording( Configuration.getConfiguration( "profile" ) );
+            l_recording.setDestination( Paths.get( p_file ) );
+            l_recording.start();
+            return l_recording;
+        }
+        catch ( final IOException | ParseException l_exception )
+        {
+            System.err.println( MessageFormat.format( "flight recording cannot be started: {0}", l_exception.getMessage() ) );
+            return null;
+        }
     }
 
     // ---------------------------------------------------------------------------------------------------------------------------------------------------------
@@ -228,7 +479,7 @@ public final class TestCAsl extends IBaseTest
     /**
      * test action
      */
-    private final class CTestResult extends IBaseAction
+    static final class CTestResult extends IBaseAction
     {
         /**
          * serial id
@@ -238,6 +489,20 @@ public final class TestCAsl extends IBaseTest
          * name
          */
         private final IPath m_name = CPath.of( "test/result" );
+        /**
+         * counter of successful results
+         */
+        private final AtomicInteger m_count;
+
+        /**
+         * ctor
+         *
+         * @param p_count counter of successful results
+         */
+        CTestResult( @Nonnull final AtomicInteger p_count )
+        {
+            m_count = p_count;
+        }
 
         @Nonnull
         @Override
@@ -0,0 +1,207 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * scenario of heavy and light asl scripts, which share one pool, the heavy
+ * agents iterate over a large list within each cycle and the light agents
+ * run a short goal loop, the cycles run in rounds on the common fork-join pool
+ * and with the fair-share scheduler, the latency fairness of each run is reported,
+ * the scenario runs only if the file agentbenchmark.conf exists on the main directory
+ */
+public final class TestCAslFairShare extends IBaseTest
+{
+    /**
+     * number of heavy agents
+     */
+    private static final int HEAVY = Integer.getInteger( "benchmark.fairshare.heavy", 10 );
+    /**
+     * number of light agents
+     */
+    private static final int LIGHT = Integer.getInteger( "benchmark.fairshare.light", 1000 );
+    /**
+     * number of list elements of the heavy agents
+     */
+    private static final int ELEMENTS = Integer.getInteger( "benchmark.fairshare.elements", 100000 );
+    /**
+     * number of cycles of each agent
+     */
+    private static final int CYCLES = Integer.getInteger( "benchmark.fairshare.cycles", 20 );
+    /**
+     * quota period in milliseconds
+     */
+    private static final long PERIOD = 10;
+    /**
+     * cpu quota of the heavy agents within a period in milliseconds
+     */
+    private static final double QUOTA = 1;
+    /**
+     * weight of the light agents
+     */
+    private static final double WEIGHT = 4;
+
+    /**
+     * runs the heavy and light scripts with the different schedulers
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void fairshare() throws Exception
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final CAslScript l_heavy = CAslScript.of(
+            "heavy",
+            MessageFormat.format( "!main.\n\n+!main <-\n    L = test/list/range( 0, {0,number,#} );\n    (L) -> I : '{' Y = I '}';\n    !main.\n", ELEMENTS )
+                         .getBytes( StandardCharsets.UTF_8 )
+        );
+        final CAslScript l_light = CAslScript.of(
+            "light",
+            "!main.\n\n+!main <-\n    X = 1;\n    !main.\n".getBytes( StandardCharsets.UTF_8 )
+        );
+
+        // rounds on the common fork-join pool, the latency is the time between the round start and the cycle start
+        final List<IAgent<?>> l_roundagents = agents( l_heavy, l_light );
+        final Map<IAgent<?>, LongAdder> l_roundlatency = new IdentityHashMap<>();
+        l_roundagents.forEach( i -> l_roundlatency.put( i, new LongAdder() ) );
+
+        final long l_roundcycles = IntStream.range( 0, CYCLES ).mapToLong( i ->
+        {
+            final long l_start = System.nanoTime();
+            return l_roundagents.parallelStream()
+                                .filter( j ->
+                                {
+                                    l_roundlatency.get( j ).add( System.nanoTime() - l_start );
+                                    return agentcycle( j );
+                                } )
+                                .count();
+        } ).sum();
+
+        Assertions.assertEquals( (long) l_roundagents.size() * CYCLES, l_roundcycles, "number of successful cycles" );
+        print( "fork-join rounds", l_roundagents, i -> l_roundlatency.get( i ).sum() / (double) CYCLES );
+
+        // fair-share scheduler with equal weights, each execution is one round, so the latency
+        // of the scheduler is also the time between the round start and the cycle start
+        final List<IAgent<?>> l_fairagents = agents( l_heavy, l_light );
+        try ( CFairShareScheduler l_scheduler = new CFairShareScheduler( Runtime.getRuntime().availableProcessors(), PERIOD, IBaseTest::agentcycle ) )
+        {
+            Assertions.assertEquals( (long) l_fairagents.size() * CYCLES, rounds( l_scheduler, l_fairagents ), "number of successful cycles" );
+            print( "fair-share", l_fairagents, l_scheduler::latency );
+        }
+
+        // fair-share scheduler with a priority of the light agents and a quota of the heavy agents
+        final List<IAgent<?>> l_quotaagents = agents( l_heavy, l_light );
+        try ( CFairShareScheduler l_scheduler = new CFairShareScheduler( Runtime.getRuntime().availableProcessors(), PERIOD, IBaseTest::agentcycle ) )
+        {
+            l_quotaagents.subList( 0, HEAVY ).forEach( i -> l_scheduler.quota( i, QUOTA ) );
+            l_quotaagents.subList( HEAVY, l_quotaagents.size() ).forEach( i -> l_scheduler.priority( i, WEIGHT ) );
+
+            Assertions.assertEquals( (long) l_quotaagents.size() * CYCLES, rounds( l_scheduler, l_quotaagents ), "number of successful cycles" );
+            print( "fair-share with priority and quota", l_quotaagents, l_scheduler::latency );
+            System.out.println( l_scheduler.report() );
+        }
+    }
+
+    /**
+     * executes the cycles of the agents in rounds of one cycle
+     *
+     * @param p_scheduler scheduler
+     * @param p_agents agents
+     * @return number of successful cycles
+     * @throws InterruptedException on interrupt
+     */
+    private static long rounds( @Nonnull final CFairShareScheduler p_scheduler, @Nonnull final List<IAgent<?>> p_agents ) throws InterruptedException
+    {
+        long l_cycles = 0;
+        for ( int i = 0; i < CYCLES; i++ )
+            l_cycles += p_scheduler.execute( p_agents, 1 );
+        return l_cycles;
+    }
+
+    /**
+     * generates the agents, the heavy agents are at the head of the list
+     *
+     * @param p_heavy heavy script
+     * @param p_light light script
+     * @return agents
+     */
+    @Nonnull
+    private static List<IAgent<?>> agents( @Nonnull final CAslScript p_heavy, @Nonnull final CAslScript p_light )
+    {
+        final AtomicInteger l_count = new AtomicInteger();
+        return Stream.concat(
+            IntStream.range( 0, HEAVY ).mapToObj( i -> TestCAsl.agent( p_heavy.stream(), l_count ) ),
+            IntStream.range( 0, LIGHT ).mapToObj( i -> TestCAsl.agent( p_light.stream(), l_count ) )
+        ).collect( Collectors.toList() );
+    }
+
+    /**
+     * prints the latency fairness of a run
+     *
+     * @param p_name run name
+     * @param p_agents agents, the heavy agents are at the head of the list
+     * @param p_latency mean latency of an agent in nanoseconds
+     */
+    private static void print( @Nonnull final String p_name, @Nonnull final List<IAgent<?>> p_agents, @Nonnull final ToDoubleFunction<IAgent<?>> p_latency )
+    {
+        System.out.println( MessageFormat.format(
+            "{0}\tlatency fairness: {1,number,#.###}\theavy latency: {2,number,#} us\tlight latency: {3,number,#} us",
+            p_name,
+            CFairShareScheduler.jain( p_agents.stream().mapToDouble( p_latency ) ),
+            mean( p_agents.subList( 0, HEAVY ), p_latency ) / 1e3,
+            mean( p_agents.subList( HEAVY, p_agents.size() ), p_latency ) / 1e3
+        ) );
+    }
+
+    /**
+     * returns the mean latency of agents
+     *
+     * @param p_agents agents
+     * @param p_latency mean latency of an agent
+     * @return latency
+     */
+    private static double mean( @Nonnull final List<IAgent<?>> p_agents, @Nonnull final ToDoubleFunction<IAgent<?>> p_latency )
+    {
+        return p_agents.stream().mapToDouble( p_latency ).average().orElse( 0 );
+    }
+}
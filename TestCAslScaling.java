@@ -0,0 +1,127 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnull;
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * scaling benchmark of generated asl scripts, each dimension of the
+ * generator grows separately, the parsing time of the agent generation
+ * and the execution time of the cycles are measured, the benchmark runs
+ * only if the file agentbenchmark.conf exists on the main directory,
+ * a small generated script is always checked
+ */
+public final class TestCAslScaling extends IBaseTest
+{
+    /**
+     * maximum size of a dimension
+     */
+    private static final int MAXIMUM = Integer.getInteger( "benchmark.asl.maximum", 1000 );
+
+    /**
+     * returns the dimension name and the generator
+     *
+     * @return test arguments
+     */
+    private static Stream<Arguments> generate()
+    {
+        return IntStream.iterate( 10, i -> i * 10 )
+                        .limit( 6 )
+                        .filter( i -> i <= MAXIMUM )
+                        .boxed()
+                        .flatMap( i -> Stream.of(
+                            Arguments.of( "plans", i, new CAslGenerator( i, 1, 1, 1, 1 ) ),
+                            Arguments.of( "ruledepth", i, new CAslGenerator( 1, i, 1, 1, 1 ) ),
+                            Arguments.of( "beliefs", i, new CAslGenerator( 1, 1, i, 1, 1 ) ),
+                            Arguments.of( "lambdasize", i, new CAslGenerator( 1, 1, 1, i, 1 ) ),
+                            Arguments.of( "branching", i, new CAslGenerator( 1, 1, 1, 1, i ) )
+                        ) );
+    }
+
+    /**
+     * runs a small generated script, so the generated checks and the
+     * test count of the header are verified without benchmarking
+     *
+     * @throws Exception on agent error
+     */
+    @Test
+    public void generated() throws Exception
+    {
+        final CAslScript l_script = new CAslGenerator( 3, 3, 4, 5, 2 ).script();
+        final AtomicInteger l_count = new AtomicInteger();
+        final IAgent<?> l_agent = TestCAsl.uninstrumented( l_script.stream(), l_count );
+
+        IntStream.range( 0, l_script.iteration() ).forEach( i -> agentcycleassert( l_agent ) );
+        Assertions.assertTrue( l_script.testcount() > 0 );
+        Assertions.assertEquals( l_script.testcount(), l_count.get(), MessageFormat.format( "{0} {1}", "number of tests", l_script.file() ) );
+    }
+
+    /**
+     * scaling benchmark
+     *
+     * @param p_dimension name of the growing dimension
+     * @param p_size size of the dimension
+     * @param p_generator script generator
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void scaling( @Nonnull final String p_dimension, final int p_size, @Nonnull final CAslGenerator p_generator )
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final CAslScript l_script = p_generator.script();
+        final AtomicInteger l_count = new AtomicInteger();
+
+        final long l_start = System.nanoTime();
+        final IAgent<?> l_agent = TestCAsl.agent( l_script.stream(), l_count );
+        final long l_parse = System.nanoTime() - l_start;
+
+        IntStream.range( 0, l_script.iteration() ).forEach( i -> agentcycleassert( l_agent ) );
+        final long l_execution = System.nanoTime() - l_start - l_parse;
+
+        Assertions.assertEquals( l_script.testcount(), l_count.get(), MessageFormat.format( "{0} {1}", "number of tests", l_script.file() ) );
+
+        System.out.println( MessageFormat.format(
+            "{0}: {1,number,#}\tsize: {2,number,#} kB\tparse: {3,number,#.###} ms\texecution: {4,number,#.###} ms",
+            p_dimension,
+            p_size,
+            l_script.content().length / 1024,
+            l_parse / 1e6,
+            l_execution / 1e6
+        ) );
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * long-running soak test of the asl corpus, each script cycles
+ * for the wall time of the system property asl.soak.minutes, throughput
+ * and heap usage after garbage collection are sampled and a linear trend
+ * is fitted to find throughput degradation and heap growth, a failed
+ * cycle fails the run
+ */
+public final class TestCAslSoak extends IBaseTest
+{
+    /**
+     * wall time of each script in minutes (zero disables the soak mode)
+     */
+    private static final long DURATION = Long.getLong( "asl.soak.minutes", 0 );
+    /**
+     * sample interval in seconds
+     */
+    private static final long INTERVAL = Long.getLong( "asl.soak.interval", 30 );
+    /**
+     * maximum relative throughput loss over the wall time
+     */
+    private static final double DEGRADATION = Double.parseDouble( System.getProperty( "asl.soak.degradation", "0.2" ) );
+    /**
+     * maximum heap growth over the wall time in megabytes
+     */
+    private static final long HEAPGROWTH = Long.getLong( "asl.soak.heapgrowth", 16 );
+    /**
+     * minimal number of samples for the trend
+     */
+    private static final int MINIMALSAMPLES = 3;
+
+    /**
+     * soak test of a script
+     *
+     * @param p_script asl script
+     */
+    @ParameterizedTest
+    @MethodSource( "org.lightjason.agentspeak.testing.TestCAsl#generate" )
+    public void soak( @Nonnull final CAslScript p_script )
+    {
+        Assumptions.assumeFalse( p_script.empty(), "asl files does not exist" );
+        Assertions.assertTrue( p_script.error().isEmpty(), p_script.error() );
+        Assumptions.assumeTrue( DURATION > 0, "soak mode is disabled, set system property asl.soak.minutes" );
+
+        final IAgent<?> l_agent = TestCAsl.agent( p_script.stream(), new AtomicInteger() );
+        final List<Double> l_time = new ArrayList<>();
+        final List<Double> l_throughput = new ArrayList<>();
+        final List<Double> l_heap = new ArrayList<>();
+
+        final long l_start = System.nanoTime();
+        final long l_end = l_start + TimeUnit.MINUTES.toNanos( DURATION );
+        long l_sample = l_start;
+        long l_cycles = 0;
+        long l_failed = 0;
+
+        while ( System.nanoTime() < l_end )
+        {
+            if ( agentcycle( l_agent ) )
+                l_cycles++;
+            else
+                l_failed++;
+
+            final long l_now = System.nanoTime();
+            if ( l_now - l_sample < TimeUnit.SECONDS.toNanos( INTERVAL ) )
+                continue;
+
+            l_time.add( ( l_now - l_start ) / 1e9 );
+            l_throughput.add( l_cycles / ( ( l_now - l_sample ) / 1e9 ) );
+            l_heap.add( (double) heap() );
+
+            l_cycles = 0;
+            l_sample = System.nanoTime();
+        }
+
+        Assertions.assertEquals( 0, l_failed, MessageFormat.format( "failed cycles of {0}", p_script ) );
+        Assumptions.assumeTrue( l_time.size() >= MINIMALSAMPLES, "not enough samples, increase the wall time or decrease the interval" );
+
+        final double l_wall = TimeUnit.MINUTES.toSeconds( DURATION );
+        final double l_throughputchange = slope( l_time, l_throughput ) * l_wall / l_throughput.stream().mapToDouble( i -> i ).average().orElse( 1 );
+        final double l_heapgrowth = slope( l_time, l_heap ) * l_wall / ( 1024 * 1024 );
+
+        System.out.println( MessageFormat.format(
+            "{0}: {1} samples, throughput {2,number,#.##} cycles/s with trend {3,number,percent}, heap trend {4,number,#.##} MB",
+            p_script, l_time.size(), l_throughput.get( l_throughput.size() - 1 ), l_throughputchange, l_heapgrowth
+        ) );
+
+        Assertions.assertTrue(
+            l_throughputchange > -DEGRADATION,
+            MessageFormat.format( "throughput of {0} degrades by {1,number,percent} over the wall time", p_script, -l_throughputchange )
+        );
+        Assertions.assertTrue(
+            l_heapgrowth < HEAPGROWTH,
+            MessageFormat.format( "retained heap of {0} grows by {1,number,#.##} MB over the wall time", p_script, l_heapgrowth )
+        );
+    }
+
+    /**
+     * returns the used heap after the most recent garbage collection of each heap pool,
+     * the collection usage does not depend on an explicit garbage collection call
+     *
+     * @return used heap in bytes
+     */
+    private static long heap()
+    {
+        return ManagementFactory.getMemoryPoolMXBeans()
+                                .stream()
+                                .filter( i -> i.getType() == MemoryType.HEAP )
+                                .map( MemoryPoolMXBean::getCollectionUsage )
+                                .filter( Objects::nonNull )
+                                .mapToLong( MemoryUsage::getUsed )
+                                .sum();
+    }
+
+    /**
+     * slope of the least-squares line
+     *
+     * @param p_x x values
+     * @param p_y y values
+     * @return slope
+     */
+    private static double slope( @Nonnull final List<Double> p_x, @Nonnull final List<Double> p_y )
+    {
+        final double l_xmean = p_x.stream().mapToDouble( i -> i ).average().orElse( 0 );
+        final double l_ymean = p_y.stream().mapToDouble( i -> i ).average().orElse( 0 );
+
+        double l_covariance = 0;
+        double l_variance = 0;
+        for ( int i = 0; i < p_x.size(); i++ )
+        {
+            l_covariance += ( p_x.get( i ) - l_xmean ) * ( p_y.get( i ) - l_ymean );
+            l_variance += ( p_x.get( i ) - l_xmean ) * ( p_x.get( i ) - l_xmean );
+        }
+
+        return l_variance == 0 ? 0 : l_covariance / l_variance;
+    }
+}
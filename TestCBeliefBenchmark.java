@@ -0,0 +1,163 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.common.CPath;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.testing.action.CTestBeliefAdd;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+
+/**
+ * scaling benchmark of the belief base, an agent loads 10^3 to 10^6 beliefs
+ * with the bulk-add test action and unifies ground beliefs in each cycle,
+ * the query latency is the cycle time difference to an agent with the same
+ * beliefs and without queries, the benchmark runs only if the file
+ * agentbenchmark.conf exists on the main directory
+ */
+public final class TestCBeliefBenchmark extends IBaseTest
+{
+    /**
+     * maximum number of beliefs
+     */
+    private static final int MAXIMUM = Integer.getInteger( "benchmark.belief.maximum", 1000000 );
+    /**
+     * number of queries in each cycle
+     */
+    private static final int QUERIES = 10;
+    /**
+     * number of warm-up cycles, which processes the belief triggers of the load
+     */
+    private static final int WARMUP = 10;
+    /**
+     * number of measured cycles
+     */
+    private static final int CYCLES = Integer.getInteger( "benchmark.belief.cycles", 100 );
+
+    /**
+     * returns the number of beliefs
+     *
+     * @return number of beliefs
+     */
+    private static Stream<Integer> generate()
+    {
+        return Stream.of( 1000, 10000, 100000, 1000000 ).filter( i -> i <= MAXIMUM );
+    }
+
+    /**
+     * belief base scaling benchmark
+     *
+     * @param p_beliefs number of beliefs
+     * @throws IOException on agent generation error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void beliefs( @Nonnegative final int p_beliefs ) throws IOException
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final Random l_random = new Random( p_beliefs );
+        final String l_queries = IntStream.range( 0, QUERIES )
+                                          .mapToObj( i -> MessageFormat.format( "    >>item( {0,number,#} );\n", l_random.nextInt( p_beliefs ) ) )
+                                          .collect( Collectors.joining() );
+
+        final IAgent<?> l_query = agent( p_beliefs, l_queries );
+        final IAgent<?> l_baseline = agent( p_beliefs, "" );
+
+        final long l_load = cycletime( l_query, 1 );
+        cycletime( l_baseline, 1 );
+
+        cycletime( l_query, WARMUP );
+        cycletime( l_baseline, WARMUP );
+        Assertions.assertEquals( p_beliefs, l_query.beliefbase().stream( CPath.of( "item" ) ).count(), "number of beliefs" );
+
+        final long l_querytime = cycletime( l_query, CYCLES );
+        final long l_baselinetime = cycletime( l_baseline, CYCLES );
+
+        System.out.println( MessageFormat.format(
+            "beliefs: {0,number,#}\tload: {1,number,#.###} ms\tcycle: {2,number,#.###} us\tquery: {3,number,#.###} us",
+            p_beliefs,
+            l_load / 1e6,
+            l_querytime / 1e3 / CYCLES,
+            Math.max( 0, l_querytime - l_baselinetime ) / 1e3 / CYCLES / QUERIES
+        ) );
+    }
+
+    /**
+     * generates an agent, which loads the beliefs in the first
+     * cycle and executes the queries in each following cycle
+     *
+     * @param p_beliefs number of beliefs
+     * @param p_queries query goals of the plan body
+     * @return agent
+     * @throws IOException on agent generation error
+     */
+    @Nonnull
+    private static IAgent<?> agent( @Nonnegative final int p_beliefs, @Nonnull final String p_queries ) throws IOException
+    {
+        return new CAgentGenerator(
+            MessageFormat.format(
+                "!load.\n\n+!load <-\n    test/belief/add( \"item\", {0,number,#} );\n    !query.\n\n+!query <-\n{1}    !query.\n",
+                p_beliefs,
+                p_queries
+            ),
+            new CActionStaticGenerator( Stream.of( new CTestBeliefAdd() ) ),
+            ILambdaStreamingGenerator.EMPTY
+        ).generatesingle();
+    }
+
+    /**
+     * runs agent cycles
+     *
+     * @param p_agent agent
+     * @param p_cycles number of cycles
+     * @return execution time in nanoseconds
+     */
+    private static long cycletime( @Nonnull final IAgent<?> p_agent, @Nonnegative final int p_cycles )
+    {
+        return LongStream.range( 0, p_cycles )
+                         .map( i ->
+                         {
+                             final long l_start = System.nanoTime();
+                             agentcycleassert( p_agent );
+                             return System.nanoTime() - l_start;
+                         } )
+                         .sum();
+    }
+}
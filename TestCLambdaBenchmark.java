@@ -0,0 +1,184 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.common.CCommon;
+import org.lightjason.agentspeak.generator.CLambdaStreamingStaticGenerator;
+import org.lightjason.agentspeak.generator.IActionGenerator;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.language.variable.CConstant;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of asl lambda loops, sequential and parallel lambdas iterate over lists,
+ * maps and streams of growing size in each agent cycle, the time of each
+ * element and the speedup of the parallel lambda are measured, the benchmark runs
+ * only if the file agentbenchmark.conf exists on the main directory
+ */
+public final class TestCLambdaBenchmark extends IBaseTest
+{
+    /**
+     * number of warm-up cycles
+     */
+    private static final int WARMUP = 20;
+    /**
+     * number of measured cycles
+     */
+    private static final int CYCLES = Integer.getInteger( "benchmark.lambda.cycles", 100 );
+    /**
+     * maximum number of elements
+     */
+    private static final int MAXIMUM = Integer.getInteger( "benchmark.lambda.maximum", 100000 );
+
+    /**
+     * returns the data type and the number of elements
+     *
+     * @return test arguments
+     */
+    private static Stream<Arguments> generate()
+    {
+        return Arrays.stream( EData.values() )
+                     .flatMap( i -> IntStream.iterate( 100, j -> j * 10 )
+                                             .limit( 5 )
+                                             .filter( j -> j <= MAXIMUM )
+                                             .mapToObj( j -> Arguments.of( i, j ) ) );
+    }
+
+    /**
+     * lambda benchmark
+     *
+     * @param p_data data type
+     * @param p_elements number of elements
+     * @throws IOException on agent generation error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void lambda( @Nonnull final EData p_data, @Nonnegative final int p_elements ) throws IOException
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final double l_sequential = elementtime( agent( "", p_data, p_elements ), p_elements );
+        final double l_parallel = elementtime( agent( "@", p_data, p_elements ), p_elements );
+
+        System.out.println( MessageFormat.format(
+            "data: {0}\telements: {1,number,#}\tsequential: {2,number,#.#} ns/element\tparallel: {3,number,#.#} ns/element\tspeedup: {4,number,#.##}",
+            p_data.name().toLowerCase( Locale.ROOT ),
+            p_elements,
+            l_sequential,
+            l_parallel,
+            l_sequential / l_parallel
+        ) );
+    }
+
+    /**
+     * generates an agent, which iterates the data with a lambda in each cycle
+     *
+     * @param p_parallel parallel prefix of the lambda
+     * @param p_data data type
+     * @param p_elements number of elements
+     * @return agent
+     * @throws IOException on agent generation error
+     */
+    @Nonnull
+    private static IAgent<?> agent( @Nonnull final String p_parallel, @Nonnull final EData p_data, @Nonnegative final int p_elements ) throws IOException
+    {
+        return new CAgentGenerator(
+            MessageFormat.format( "!main.\n\n+!main <-\n    {0}(Data) -> I : '{' Y = I '}';\n    !main.\n", p_parallel ),
+            IActionGenerator.EMPTY,
+            new CLambdaStreamingStaticGenerator( CCommon.lambdastreamingFromPackage() ),
+            p_data.apply( p_elements )
+        ).generatesingle();
+    }
+
+    /**
+     * measures the cycles of an agent
+     *
+     * @param p_agent agent
+     * @param p_elements number of elements
+     * @return time of each element in nanoseconds
+     */
+    private static double elementtime( @Nonnull final IAgent<?> p_agent, @Nonnegative final int p_elements )
+    {
+        IntStream.range( 0, WARMUP ).forEach( i -> agentcycleassert( p_agent ) );
+
+        final long l_start = System.nanoTime();
+        IntStream.range( 0, CYCLES ).forEach( i -> agentcycleassert( p_agent ) );
+        return (double) ( System.nanoTime() - l_start ) / CYCLES / p_elements;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * data types of the lambda, lists and maps are shared constants,
+     * streams can be consumed once, so they are created on each instantiation
+     */
+    private enum EData implements Function<Integer, IVariableBuilder>
+    {
+        LIST,
+        MAP,
+        STREAM;
+
+        @Override
+        public IVariableBuilder apply( @Nonnull final Integer p_elements )
+        {
+            switch ( this )
+            {
+                case LIST:
+                    return new CConstantVariableBuilder().constant(
+                        "Data", Collections.unmodifiableList( IntStream.range( 0, p_elements ).boxed().collect( Collectors.toList() ) )
+                    );
+
+                case MAP:
+                    return new CConstantVariableBuilder().constant(
+                        "Data", Collections.unmodifiableMap( IntStream.range( 0, p_elements ).boxed().collect( Collectors.toMap( i -> i, i -> i ) ) )
+                    );
+
+                case STREAM:
+                    return new CConstantVariableBuilder(
+                        ( p_agent, p_instance ) -> Stream.of( new CConstant<>( "Data", IntStream.range( 0, p_elements ).boxed() ) )
+                    );
+
+                default:
+                    throw new IllegalStateException( MessageFormat.format( "unknown data type {0}", this ) );
+            }
+        }
+    }
+}
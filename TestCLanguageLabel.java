@@ -25,11 +25,14 @@ package org.lightjason.agentspeak.testing;
 
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Assertions;
@@ -39,26 +42,35 @@ import org.lightjason.agentspeak.common.CCommon;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -82,6 +94,18 @@ public final class TestCLanguageLabel extends IBaseTest
      * property filenames with language data
      */
     private static final Map<String, URI> LANGUAGEPROPERY = new HashMap<>();
+    /**
+     * label index of the source files
+     */
+    private static final CLabelIndex LABELINDEX = new CLabelIndex( Paths.get( "labelindex.properties" ), version() );
+    /**
+     * java parser of each thread
+     */
+    private static final ThreadLocal<JavaParser> PARSER = ThreadLocal.withInitial( JavaParser::new );
+    /**
+     * number of repetitions of the label extraction benchmark
+     */
+    private static final int BENCHMARKREPETITIONS = 10;
 
     static
     {
@@ -184,13 +208,24 @@ public final class TestCLanguageLabel extends IBaseTest
         Assumptions.assumeTrue( !LANGUAGEPROPERY.isEmpty(), "no languages are defined for checking" );
         Assumptions.assumeTrue( LANGUAGEPROPERY.values().stream().anyMatch( i -> new File( i ).isFile() ), "language files does not exist" );
 
-        final Set<String> l_ignoredlabel = new HashSet<>();
+        final Set<String> l_ignoredlabel = ConcurrentHashMap.newKeySet();
+
+        // --- parse source in parallel and get label definition, unchanged files are read from the label index
+        final List<Path> l_files;
+        try
+        (
+            final Stream<Path> l_walk = Files.walk( Paths.get( SEARCHPATH ) )
+        )
+        {
+            l_files = l_walk.filter( Files::isRegularFile )
+                            .filter( i -> i.toString().endsWith( ".java" ) )
+                            .collect( Collectors.toList() );
+        }
 
-        // --- parse source and get label definition
-        final Set<String> l_label = Files.walk( Paths.get( SEARCHPATH ) )
-                                         .filter( Files::isRegularFile )
-                                         .filter( i -> i.toString().endsWith( ".java" ) )
-                                         .flatMap( i -> labels( i, l_ignoredlabel ) ).collect( Collectors.toUnmodifiableSet() );
+        final Set<String> l_label = l_files.parallelStream()
+                                           .flatMap( i -> labels( i, l_ignoredlabel ) )
+                                           .collect( Collectors.toUnmodifiableSet() );
+        LABELINDEX.store();
 
         // --- check of any label is found
         Assertions.assertFalse( l_label.isEmpty(), "translation labels are empty, check naming of translation method" );
@@ -199,72 +234,185 @@ public final class TestCLanguageLabel extends IBaseTest
         if ( l_ignoredlabel.size() > 0 )
             System.err.println( MessageFormat.format( "labels that starts with {0} are ignored, because parsing errors are occurred", l_ignoredlabel ) );
 
-        LANGUAGEPROPERY.forEach( ( k, v ) ->
+        // --- load all languages concurrently and check the labels in a single pass,
+        // the unused property items are filtered by the prefix trie of the ignored labels
+        final Map<String, Set<String>> l_properties = LANGUAGEPROPERY.entrySet()
+                                                                     .parallelStream()
+                                                                     .collect( Collectors.toMap( Map.Entry::getKey, i -> propertykeys( i.getValue() ) ) );
+        final CPrefixTrie l_ignored = new CPrefixTrie( l_ignoredlabel );
+
+        final String l_error = l_properties.entrySet()
+                                           .parallelStream()
+                                           .sorted( Map.Entry.comparingByKey() )
+                                           .flatMap( i ->
+                                           {
+                                               // --- check if all parsed labels are within the property items
+                                               final Set<String> l_missing = l_label.stream()
+                                                                                    .filter( j -> !i.getValue().contains( j ) )
+                                                                                    .collect( Collectors.toCollection( TreeSet::new ) );
+
+                                               // --- check if all property items are within the parsed labels
+                                               final Set<String> l_unused = i.getValue()
+                                                                             .stream()
+                                                                             .filter( j -> !l_label.contains( j ) )
+                                                                             .filter( j -> !l_ignored.prefixed( j ) )
+                                                                             .collect( Collectors.toCollection( TreeSet::new ) );
+
+                                               return Stream.of(
+                                                   l_missing.isEmpty()
+                                                   ? ""
+                                                   : MessageFormat.format(
+                                                       "the following {1,choice,1#key|1<keys} in language [{0}] {1,choice,1#is|1<are} "
+                                                       + "not existing within the language file:\n{2}",
+                                                       i.getKey(),
+                                                       l_missing.size(),
+                                                       StringUtils.join( l_missing, ", " )
+                                                   ),
+                                                   l_unused.isEmpty()
+                                                   ? ""
+                                                   : MessageFormat.format(
+                                                       "the following {1,choice,1#key|1<keys} in language [{0}] {1,choice,1#is|1<are} "
+                                                       + "not existing within the source code:\n{2}",
+                                                       i.getKey(),
+                                                       l_unused.size(),
+                                                       StringUtils.join( l_unused, ", " )
+                                                   )
+                                               );
+                                           } )
+                                           .filter( i -> !i.isEmpty() )
+                                           .collect( Collectors.joining( "\n" ) );
+
+        Assertions.assertTrue( l_error.isEmpty(), l_error );
+    }
+
+    /**
+     * benchmark of the label extraction over the parsed source files, the visitor,
+     * which reads the argument nodes, is compared with the former visitor, which
+     * prints each method call and matches it with a regular expression
+     *
+     * @throws IOException throws on io errors
+     */
+    @Test
+    public void testLabelExtractionBenchmark() throws IOException
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final List<CompilationUnit> l_units;
+        try
+        (
+            final Stream<Path> l_walk = Files.walk( Paths.get( SEARCHPATH ) )
+        )
         {
-            try
-                 (
-                     final FileInputStream l_stream = new FileInputStream( new File( v ) )
-                 )
-            {
-                final Properties l_property = new Properties();
-                l_property.load( l_stream );
-
-                final Set<String> l_parseditems = new HashSet<>( l_label );
-                final Set<String> l_propertyitems = l_property.keySet().parallelStream().map( Object::toString ).collect(
-                    Collectors.toSet() );
-
-                // --- check if all property items are within the parsed labels
-                l_parseditems.removeAll( l_propertyitems );
-                Assertions.assertTrue(
-                    l_parseditems.isEmpty(),
-                    MessageFormat.format(
-                        "the following {1,choice,1#key|1<keys} in language [{0}] {1,choice,1#is|1<are} not existing within the language file:\n{2}",
-                        k,
-                        l_parseditems.size(),
-                        StringUtils.join( l_parseditems, ", " )
-                    )
-                );
-
-
-                // --- check if all parsed labels within the property item and remove ignored labels
-                l_propertyitems.removeAll( l_label );
-                final Set<String> l_ignoredpropertyitems = l_propertyitems.parallelStream()
-                                                                          .filter( j -> l_ignoredlabel.parallelStream()
-                                                                                                      .map( j::startsWith )
-                                                                                                      .allMatch( l -> false )
-                                                                          )
-                                                                          .collect( Collectors.toSet() );
-                Assertions.assertTrue(
-                    l_ignoredpropertyitems.isEmpty(),
-                    MessageFormat.format(
-                        "the following {1,choice,1#key|1<keys} in language [{0}] {1,choice,1#is|1<are} not existing within the source code:\n{2}",
-                        k,
-                        l_ignoredpropertyitems.size(),
-                        StringUtils.join( l_ignoredpropertyitems, ", " )
-                    )
-                );
-            }
-            catch ( final IOException l_exception )
-            {
-                Assertions.fail( MessageFormat.format( "io exception: {0}", l_exception.getMessage() ) );
-            }
-        } );
+            l_units = l_walk.filter( Files::isRegularFile )
+                            .filter( i -> i.toString().endsWith( ".java" ) )
+                            .map( i ->
+                            {
+                                try
+                                {
+                                    return PARSER.get().parse( i ).getResult().orElse( null );
+                                }
+                                catch ( final IOException | ParseProblemException l_exception )
+                                {
+                                    return null;
+                                }
+                            } )
+                            .filter( Objects::nonNull )
+                            .collect( Collectors.toList() );
+        }
+
+        final Set<String> l_node = extraction( l_units, CJavaVistor::new );
+        final Set<String> l_string = extraction( l_units, CStringVisitor::new );
+        Assertions.assertEquals( l_string, l_node, "label extraction of the argument nodes differs from the string extraction" );
+
+        final long l_nodetime = IntStream.range( 0, BENCHMARKREPETITIONS ).mapToLong( i -> extractiontime( l_units, CJavaVistor::new ) ).sum();
+        final long l_stringtime = IntStream.range( 0, BENCHMARKREPETITIONS ).mapToLong( i -> extractiontime( l_units, CStringVisitor::new ) ).sum();
+
+        System.out.println( MessageFormat.format(
+            "files: {0}\tlabels: {1}\tnode extraction: {2,number,#.###} ms\tstring extraction: {3,number,#.###} ms\tspeedup: {4,number,#.##}",
+            l_units.size(),
+            l_node.size(),
+            l_nodetime / 1e6 / BENCHMARKREPETITIONS,
+            l_stringtime / 1e6 / BENCHMARKREPETITIONS,
+            (double) l_stringtime / l_nodetime
+        ) );
+    }
+
+    /**
+     * extracts the labels of parsed source files
+     *
+     * @param p_units compilation units
+     * @param p_visitor visitor factory
+     * @return labels
+     */
+    @Nonnull
+    private static Set<String> extraction( @Nonnull final List<CompilationUnit> p_units, @Nonnull final Supplier<CJavaVistor> p_visitor )
+    {
+        return p_units.stream()
+                      .flatMap( i ->
+                      {
+                          final CJavaVistor l_visitor = p_visitor.get();
+                          i.accept( l_visitor, null );
+                          return l_visitor.labels().stream();
+                      } )
+                      .collect( Collectors.toSet() );
+    }
+
+    /**
+     * measures the label extraction of parsed source files
+     *
+     * @param p_units compilation units
+     * @param p_visitor visitor factory
+     * @return execution time in nanoseconds
+     */
+    private static long extractiontime( @Nonnull final List<CompilationUnit> p_units, @Nonnull final Supplier<CJavaVistor> p_visitor )
+    {
+        final long l_start = System.nanoTime();
+        extraction( p_units, p_visitor );
+        return System.nanoTime() - l_start;
+    }
+
+    /**
+     * reads the keys of a language property file
+     *
+     * @param p_file property file
+     * @return keys
+     */
+    @Nonnull
+    private static Set<String> propertykeys( @Nonnull final URI p_file )
+    {
+        try
+        (
+            final FileInputStream l_stream = new FileInputStream( new File( p_file ) )
+        )
+        {
+            final Properties l_property = new Properties();
+            l_property.load( l_stream );
+            return l_property.stringPropertyNames();
+        }
+        catch ( final IOException l_exception )
+        {
+            Assertions.fail( MessageFormat.format( "io exception: {0}", l_exception.getMessage() ) );
+            return Collections.emptySet();
+        }
     }
 
     /**
      * get labels
      *
      * @param p_file input java file
-     * @param p_ignoredlabel ignoring labels (will be append)
+     * @param p_ignoredlabel ignoring labels (will be append, must be thread-safe)
      * @return label stream
      */
     private static Stream<String> labels( @Nonnull final Path p_file, @Nonnull final Set<String> p_ignoredlabel )
     {
         try
         {
-            final CJavaVistor l_visitor = new CJavaVistor();
-            new JavaParser().parse( p_file.toFile() ).getResult().get().accept( l_visitor, null );
-            return l_visitor.labels().stream();
+            return LABELINDEX.labels( p_file, i ->
+            {
+                final CJavaVistor l_visitor = new CJavaVistor();
+                PARSER.get().parse( new ByteArrayInputStream( i ), StandardCharsets.UTF_8 ).getResult().get().accept( l_visitor, null );
+                return l_visitor.labels();
+            } ).stream();
         }
         catch ( final IOException l_excpetion )
         {
@@ -303,6 +451,30 @@ public final class TestCLanguageLabel extends IBaseTest
     }
 
 
+    /**
+     * returns the version of the label extraction, which is
+     * the hash of the visitor class
+     *
+     * @return version
+     */
+    @Nonnull
+    private static String version()
+    {
+        try
+        (
+            final InputStream l_stream = CJavaVistor.class.getResourceAsStream(
+                CJavaVistor.class.getName().substring( CJavaVistor.class.getName().lastIndexOf( CLASSSEPARATOR ) + 1 ) + ".class"
+            )
+        )
+        {
+            return Objects.isNull( l_stream ) ? "" : CLabelIndex.hash( IOUtils.toByteArray( l_stream ) );
+        }
+        catch ( final IOException l_exception )
+        {
+            return "";
+        }
+    }
+
     /**
      * concats an URL with a path
      *
@@ -334,18 +506,19 @@ public final class TestCLanguageLabel extends IBaseTest
     // ---------------------------------------------------------------------------------------------------------------------------------------------------------
 
     /**
-     * AST visitor class
+     * AST visitor class, the translation calls are matched by
+     * the scope and the name and the arguments are read from the nodes
      */
     private static class CJavaVistor extends VoidVisitorAdapter<Object>
     {
         /**
-         * method to translate strings
+         * class of the translation method
          */
-        private static final String TRANSLATEMETHODNAME = "CCommon.languagestring";
+        private static final String TRANSLATECLASSNAME = "CCommon";
         /**
-         * reg expression to extract label data
+         * method to translate strings
          */
-        private static final Pattern LANGUAGEMETHODPATTERN = Pattern.compile( TRANSLATEMETHODNAME + ".+?\\)" );
+        private static final String TRANSLATEMETHODNAME = "languagestring";
         /**
          * inner class name *
          */
@@ -409,39 +582,62 @@ public final class TestCLanguageLabel extends IBaseTest
         @Override
         public void visit( final MethodCallExpr p_methodcall, final Object p_arg )
         {
-            final String l_label = this.label( p_methodcall.toString() );
-            if ( !l_label.isEmpty() )
-                m_label.add( l_label );
-
+            this.match( p_methodcall );
             super.visit( p_methodcall, p_arg );
         }
 
         /**
-         * gets the class name and label name
+         * adds the label of a translation call, the first argument is this
+         * or a class literal and the second argument a string literal
          *
-         * @param p_line input trimmed line
-         * @return label or empty string
+         * @param p_methodcall method call
          */
-        private String label( final String p_line )
+        protected void match( final MethodCallExpr p_methodcall )
         {
-            final Matcher l_matcher = LANGUAGEMETHODPATTERN.matcher( p_line );
-            if ( !l_matcher.find() )
-                return "";
-
-            final String[] l_split = l_matcher.group( 0 ).split( "," );
-            final String[] l_return = new String[2];
-
-            // class name
-            l_return[0] = l_split[0].replace( TRANSLATEMETHODNAME, "" ).replace( "(", "" ).trim();
-            // label name
-            l_return[1] = l_split[1].replace( ")", "" ).replace( "\"", "" ).split( ";" )[0].trim().toLowerCase( Locale.ROOT );
+            if ( !TRANSLATEMETHODNAME.equals( p_methodcall.getNameAsString() )
+                 || p_methodcall.getArguments().size() < 2
+                 || !p_methodcall.getScope().map( CJavaVistor::translationscope ).orElse( false ) )
+                return;
+
+            final Expression l_class = p_methodcall.getArgument( 0 );
+            final Expression l_label = p_methodcall.getArgument( 1 );
+            if ( !l_label.isStringLiteralExpr() )
+                return;
+
+            if ( l_class.isThisExpr() )
+                this.add( "this", l_label.asStringLiteralExpr().asString() );
+            else if ( l_class.isClassExpr() )
+                this.add( l_class.asClassExpr().getType().asString(), l_label.asStringLiteralExpr().asString() );
+        }
 
-            return (
-                "this".equals( l_return[0] )
-                ? buildlabel( m_package, m_outerclass, m_outerclass, m_innerclass, l_return[1] )
-                : buildlabel( m_package, m_outerclass, l_return[0].replace( ".class", "" ).replace( m_package + CLASSSEPARATOR, "" ), "", l_return[1] )
-            ).trim().toLowerCase( Locale.ROOT ).replace( CCommon.PACKAGEROOT + CLASSSEPARATOR, "" );
+        /**
+         * adds a label
+         *
+         * @param p_class class name or this
+         * @param p_label label name
+         */
+        protected final void add( final String p_class, final String p_label )
+        {
+            final String l_label = p_label.split( ";" )[0].trim().toLowerCase( Locale.ROOT );
+            m_label.add(
+                (
+                    "this".equals( p_class )
+                    ? buildlabel( m_package, m_outerclass, m_outerclass, m_innerclass, l_label )
+                    : buildlabel( m_package, m_outerclass, p_class.replace( m_package + CLASSSEPARATOR, "" ), "", l_label )
+                ).trim().toLowerCase( Locale.ROOT ).replace( CCommon.PACKAGEROOT + CLASSSEPARATOR, "" )
+            );
+        }
 
+        /**
+         * checks if the scope of a method call is the translation class
+         *
+         * @param p_scope scope expression
+         * @return scope is the translation class
+         */
+        private static boolean translationscope( final Expression p_scope )
+        {
+            return p_scope.isNameExpr() && TRANSLATECLASSNAME.equals( p_scope.asNameExpr().getNameAsString() )
+                   || p_scope.isFieldAccessExpr() && TRANSLATECLASSNAME.equals( p_scope.asFieldAccessExpr().getNameAsString() );
         }
 
         /**
@@ -475,4 +671,94 @@ public final class TestCLanguageLabel extends IBaseTest
 
     }
 
+    /**
+     * character trie of label prefixes
+     */
+    private static final class CPrefixTrie
+    {
+        /**
+         * child nodes
+         */
+        private final Map<Character, CPrefixTrie> m_children = new HashMap<>();
+        /**
+         * a prefix ends on this node
+         */
+        private boolean m_end;
+
+        /**
+         * ctor
+         */
+        private CPrefixTrie()
+        {
+        }
+
+        /**
+         * ctor
+         *
+         * @param p_prefixes prefixes
+         */
+        CPrefixTrie( @Nonnull final Collection<String> p_prefixes )
+        {
+            p_prefixes.forEach( i ->
+            {
+                CPrefixTrie l_node = this;
+                for ( final char l_char : i.toCharArray() )
+                    l_node = l_node.m_children.computeIfAbsent( l_char, j -> new CPrefixTrie() );
+                l_node.m_end = true;
+            } );
+        }
+
+        /**
+         * checks if a value starts with any prefix
+         *
+         * @param p_value value
+         * @return value starts with a prefix
+         */
+        boolean prefixed( @Nonnull final String p_value )
+        {
+            CPrefixTrie l_node = this;
+            for ( int i = 0; i < p_value.length() && !l_node.m_end; i++ )
+            {
+                l_node = l_node.m_children.get( p_value.charAt( i ) );
+                if ( Objects.isNull( l_node ) )
+                    return false;
+            }
+            return l_node.m_end;
+        }
+    }
+
+    /**
+     * visitor with the former label extraction, which prints each method call
+     * and matches the translation call with a regular expression, it is the
+     * reference of the label extraction benchmark
+     */
+    private static final class CStringVisitor extends CJavaVistor
+    {
+        /**
+         * method to translate strings
+         */
+        private static final String TRANSLATEMETHODNAME = "CCommon.languagestring";
+        /**
+         * reg expression to extract label data
+         */
+        private static final Pattern LANGUAGEMETHODPATTERN = Pattern.compile( TRANSLATEMETHODNAME + ".+?\\)" );
+
+        @Override
+        protected void match( final MethodCallExpr p_methodcall )
+        {
+            final Matcher l_matcher = LANGUAGEMETHODPATTERN.matcher( p_methodcall.toString() );
+            if ( !l_matcher.find() )
+                return;
+
+            final String[] l_split = l_matcher.group( 0 ).split( "," );
+            if ( l_split.length < 2 )
+                return;
+
+            this.add(
+                l_split[0].replace( TRANSLATEMETHODNAME, "" ).replace( "(", "" ).trim().replace( ".class", "" ),
+                l_split[1].replace( ")", "" ).replace( "\"", "" )
+            );
+        }
+    }
+
 }
@@ -0,0 +1,160 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.testing.action.CTestMailbox;
+import org.lightjason.agentspeak.testing.action.CTestMessageReceive;
+import org.lightjason.agentspeak.testing.action.CTestMessageSend;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of message passing between agents, each agent sends a message
+ * to its fan-out neighbours on a ring and receives its mailbox in each cycle,
+ * the agents cycle in parallel, the benchmark runs only if the file
+ * agentbenchmark.conf exists on the main directory
+ */
+public final class TestCMessageBenchmark extends IBaseTest
+{
+    /**
+     * number of warm-up rounds
+     */
+    private static final int WARMUP = 10;
+    /**
+     * number of measured rounds
+     */
+    private static final int ROUNDS = Integer.getInteger( "benchmark.message.rounds", 100 );
+
+    /**
+     * returns the number of agents and the fan-out
+     *
+     * @return test arguments
+     */
+    private static Stream<Arguments> generate()
+    {
+        return Stream.of( 10, 100, 1000 )
+                     .flatMap( i -> Stream.of( 1, 4, 16 ).filter( j -> j < i ).map( j -> Arguments.of( i, j ) ) );
+    }
+
+    /**
+     * message passing benchmark
+     *
+     * @param p_agents number of agents
+     * @param p_fanout number of receivers of each message
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void messaging( @Nonnegative final int p_agents, @Nonnegative final int p_fanout )
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final CTestMailbox l_mailbox = new CTestMailbox();
+        final List<IAgent<?>> l_agents = IntStream.range( 0, p_agents )
+                                                  .mapToObj( i -> agent( i, p_agents, p_fanout, l_mailbox ) )
+                                                  .collect( Collectors.toList() );
+
+        IntStream.range( 0, WARMUP ).forEach( i -> l_agents.parallelStream().forEach( IBaseTest::agentcycleassert ) );
+        l_mailbox.reset();
+
+        final long l_start = System.nanoTime();
+        IntStream.range( 0, ROUNDS ).forEach( i -> l_agents.parallelStream().forEach( IBaseTest::agentcycleassert ) );
+        final long l_time = System.nanoTime() - l_start;
+
+        Assertions.assertEquals( (long) p_agents * p_fanout * ROUNDS, l_mailbox.sent(), "number of sent messages" );
+
+        System.out.println( MessageFormat.format(
+            "agents: {0}\tfan-out: {1}\tmessages/sec: {2,number,#}\tlatency p50: {3,number,#} us\tp99: {4,number,#} us",
+            p_agents,
+            p_fanout,
+            l_mailbox.delivered() * 1e9 / l_time,
+            l_mailbox.latency( 0.5 ) / 1e3,
+            l_mailbox.latency( 0.99 ) / 1e3
+        ) );
+    }
+
+    /**
+     * generates an agent, which sends a message to its
+     * fan-out neighbours and receives its mailbox in each cycle
+     *
+     * @param p_index agent index
+     * @param p_agents number of agents
+     * @param p_fanout number of receivers
+     * @param p_mailbox mailbox registry
+     * @return agent
+     */
+    @Nonnull
+    private static IAgent<?> agent( @Nonnegative final int p_index, @Nonnegative final int p_agents, @Nonnegative final int p_fanout,
+                                    @Nonnull final CTestMailbox p_mailbox )
+    {
+        p_mailbox.register( name( p_index ) );
+
+        final String l_asl = MessageFormat.format(
+            "!main.\n\n+!main <-\n    test/message/send( \"ping\", {0} );\n    M = test/message/receive( \"{1}\" );\n    !main.\n",
+            IntStream.rangeClosed( 1, p_fanout ).mapToObj( i -> "\"" + name( ( p_index + i ) % p_agents ) + "\"" ).collect( Collectors.joining( ", " ) ),
+            name( p_index )
+        );
+
+        try
+        {
+            return new CAgentGenerator(
+                l_asl,
+                new CActionStaticGenerator( Stream.of( new CTestMessageSend( p_mailbox ), new CTestMessageReceive( p_mailbox ) ) ),
+                ILambdaStreamingGenerator.EMPTY
+            ).generatesingle();
+        }
+        catch ( final IOException l_exception )
+        {
+            throw new UncheckedIOException( l_exception );
+        }
+    }
+
+    /**
+     * returns the agent name
+     *
+     * @param p_index agent index
+     * @return name
+     */
+    @Nonnull
+    private static String name( @Nonnegative final int p_index )
+    {
+        return "agent-" + p_index;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.testing.action.CTestPrint;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * test of the plan nesting of the profiler
+ */
+public final class TestCPlanProfiler extends IBaseTest
+{
+
+    /**
+     * test that sequential sub-plans are sibling frames
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void siblings() throws Exception
+    {
+        final List<String> l_stacks = stacks(
+            "!main.\n\n"
+            + "+!main <-\n    !!first;\n    !!second;\n    test/print( \"main\" ).\n\n"
+            + "+!first <-\n    test/print( \"first\" ).\n\n"
+            + "+!second <-\n    test/print( \"second\" ).\n"
+        );
+
+        Assertions.assertTrue(
+            l_stacks.stream().anyMatch( i -> frames( i ).anyMatch( j -> j.contains( "main" ) ) && frames( i ).anyMatch( j -> j.contains( "first" ) ) ),
+            () -> "first is not a child of main: " + l_stacks
+        );
+        Assertions.assertTrue(
+            l_stacks.stream().anyMatch( i -> frames( i ).anyMatch( j -> j.contains( "main" ) ) && frames( i ).anyMatch( j -> j.contains( "second" ) ) ),
+            () -> "second is not a child of main: " + l_stacks
+        );
+        Assertions.assertTrue(
+            l_stacks.stream().noneMatch( i -> frames( i ).anyMatch( j -> j.contains( "first" ) ) && frames( i ).anyMatch( j -> j.contains( "second" ) ) ),
+            () -> "first and second are nested: " + l_stacks
+        );
+    }
+
+    /**
+     * test that each recursive instantiation is a frame
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void recursion() throws Exception
+    {
+        final List<String> l_stacks = stacks(
+            "!deep( 3 ).\n\n"
+            + "+!deep( N ) : N > 0 <-\n    test/print( N );\n    !!deep( N - 1 ).\n\n"
+            + "+!deep( N ) : N <= 0 <-\n    test/print( N ).\n"
+        );
+
+        Assertions.assertEquals(
+            4,
+            l_stacks.stream().mapToLong( i -> frames( i ).filter( j -> j.contains( "deep" ) ).count() ).max().orElse( 0 ),
+            () -> "recursion depth: " + l_stacks
+        );
+    }
+
+    /**
+     * runs an agent with the profiler and returns the collapsed stacks of the action calls
+     *
+     * @param p_asl asl code
+     * @return collapsed stacks without call count
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static List<String> stacks( @Nonnull final String p_asl ) throws Exception
+    {
+        final CPlanProfiler l_profiler = new CPlanProfiler();
+        final IAgent<?> l_agent = new CAgentGenerator(
+            p_asl,
+            new CActionStaticGenerator( Stream.of( l_profiler.decorate( new CTestPrint() ) ) ),
+            ILambdaStreamingGenerator.EMPTY,
+            l_profiler.decorate( IVariableBuilder.EMPTY )
+        ).generatesingle();
+
+        for ( int i = 0; i < 3; i++ )
+            l_profiler.cycle( l_agent::call );
+
+        return Arrays.stream( l_profiler.collapsed( CPlanProfiler.EValue.CALLS ).split( "\n" ) )
+                     .map( i -> i.substring( 0, i.lastIndexOf( ' ' ) ) )
+                     .filter( i -> i.endsWith( ";test/print" ) )
+                     .collect( Collectors.toList() );
+    }
+
+    /**
+     * returns the plan frames of a collapsed stack
+     *
+     * @param p_stack collapsed stack
+     * @return plan frames without the root and the action frame
+     */
+    @Nonnull
+    private static Stream<String> frames( @Nonnull final String p_stack )
+    {
+        final String[] l_frames = p_stack.split( ";" );
+        return Arrays.stream( l_frames, 1, l_frames.length - 1 );
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.testing.action.CTestPrint;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * test of the chrome trace events of the timeline recorder
+ */
+public final class TestCTraceRecorder extends IBaseTest
+{
+    /**
+     * asl script with one action call in each cycle
+     */
+    private static final String ASL = "!main.\n\n+!main <-\n    test/print( \"main\" );\n    !main.\n";
+    /**
+     * span event
+     */
+    private static final Pattern SPAN = Pattern.compile(
+        "\\{\"name\":\"[^\"]*\",\"cat\":\"(cycle|action)\",\"ph\":\"X\",\"ts\":\\d+\\.\\d{3},\"dur\":\\d+\\.\\d{3},\"pid\":(\\d+),\"tid\":(\\d+)\\}"
+    );
+    /**
+     * process name event
+     */
+    private static final Pattern PROCESS = Pattern.compile( "\\{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":(\\d+),\"args\":\\{\"name\":\"agent [^\"]*\"\\}\\}" );
+    /**
+     * thread name event
+     */
+    private static final Pattern THREAD = Pattern.compile(
+        "\\{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":(\\d+),\"tid\":(\\d+),\"args\":\\{\"name\":\"[^\"]*\"\\}\\}"
+    );
+
+    /**
+     * test the events of two agents, each agent is a process with a
+     * sequential identifier and each span has a named thread
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void events() throws Exception
+    {
+        final CTraceRecorder l_recorder = new CTraceRecorder( 1000 );
+        final List<String> l_events = events( l_recorder, 2, 3 );
+
+        Assertions.assertEquals( 0, l_recorder.dropped() );
+        Assertions.assertTrue(
+            l_events.stream().allMatch( i -> SPAN.matcher( i ).matches() || PROCESS.matcher( i ).matches() || THREAD.matcher( i ).matches() ),
+            () -> "unknown event structure: " + l_events
+        );
+
+        final Set<String> l_processes = groups( l_events, PROCESS ).map( i -> i.get( 0 ) ).collect( Collectors.toSet() );
+        Assertions.assertEquals( new HashSet<>( Arrays.asList( "1", "2" ) ), l_processes );
+
+        final List<List<String>> l_spans = groups( l_events, SPAN ).collect( Collectors.toList() );
+        final Map<String, Map<String, Long>> l_count = l_spans.stream().collect(
+            Collectors.groupingBy( i -> i.get( 1 ), Collectors.groupingBy( i -> i.get( 0 ), Collectors.counting() ) )
+        );
+        Assertions.assertEquals( l_processes, l_count.keySet() );
+        l_count.values().forEach( i ->
+        {
+            Assertions.assertEquals( 3L, i.get( "cycle" ) );
+            Assertions.assertEquals( 3L, i.get( "action" ) );
+        } );
+
+        final Set<List<String>> l_threads = groups( l_events, THREAD ).collect( Collectors.toSet() );
+        Assertions.assertEquals( l_spans.stream().map( i -> i.subList( 1, 3 ) ).collect( Collectors.toSet() ), l_threads );
+    }
+
+    /**
+     * test that spans above the capacity are dropped
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void capacity() throws Exception
+    {
+        final CTraceRecorder l_recorder = new CTraceRecorder( 4 );
+        final List<String> l_events = events( l_recorder, 1, 3 );
+
+        Assertions.assertEquals( 2, l_recorder.dropped() );
+        Assertions.assertEquals( 4, l_events.stream().filter( i -> SPAN.matcher( i ).matches() ).count() );
+    }
+
+    /**
+     * records the cycles of agents and returns the stored events
+     *
+     * @param p_recorder recorder
+     * @param p_agents number of agents
+     * @param p_cycles number of cycles of each agent
+     * @return events without separators
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static List<String> events( @Nonnull final CTraceRecorder p_recorder, final int p_agents, final int p_cycles ) throws Exception
+    {
+        final CAgentGenerator l_generator = new CAgentGenerator(
+            ASL,
+            new CActionStaticGenerator( Stream.of( p_recorder.decorate( new CTestPrint() ) ) ),
+            ILambdaStreamingGenerator.EMPTY,
+            IVariableBuilder.EMPTY
+        );
+
+        for ( int i = 0; i < p_agents; i++ )
+        {
+            final IAgent<?> l_agent = l_generator.generatesingle();
+            for ( int j = 0; j < p_cycles; j++ )
+                p_recorder.cycle( l_agent, l_agent::call );
+        }
+
+        final Path l_file = Files.createTempFile( "trace", ".json" );
+        try
+        {
+            p_recorder.store( l_file );
+            final List<String> l_lines = Files.readAllLines( l_file, StandardCharsets.UTF_8 );
+
+            Assertions.assertEquals( "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[", l_lines.get( 0 ) );
+            Assertions.assertEquals( "]}", l_lines.get( l_lines.size() - 1 ) );
+            return l_lines.subList( 1, l_lines.size() - 1 )
+                          .stream()
+                          .map( i -> i.endsWith( "," ) ? i.substring( 0, i.length() - 1 ) : i )
+                          .collect( Collectors.toList() );
+        }
+        finally
+        {
+            Files.deleteIfExists( l_file );
+        }
+    }
+
+    /**
+     * returns the groups of the events, which match a pattern
+     *
+     * @param p_events events
+     * @param p_pattern pattern
+     * @return groups of each matching event
+     */
+    @Nonnull
+    private static Stream<List<String>> groups( @Nonnull final List<String> p_events, @Nonnull final Pattern p_pattern )
+    {
+        return p_events.stream()
+                       .map( p_pattern::matcher )
+                       .filter( Matcher::matches )
+                       .map( i -> Stream.iterate( 1, j -> j + 1 ).limit( i.groupCount() ).map( i::group ).collect( Collectors.toList() ) );
+    }
+}
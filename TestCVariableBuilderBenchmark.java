@@ -0,0 +1,139 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.language.execution.IVariableBuilder;
+import org.lightjason.agentspeak.language.execution.instantiable.plan.IPlan;
+import org.lightjason.agentspeak.language.variable.CConstant;
+import org.lightjason.agentspeak.language.variable.IVariable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * benchmark of variable builders, a builder which creates the constants on each
+ * plan instantiation is compared with the constant variable builder, the execution
+ * time and the allocated bytes of an instantiation are measured, the benchmark runs
+ * only if the file agentbenchmark.conf exists on the main directory
+ */
+public final class TestCVariableBuilderBenchmark extends IBaseTest
+{
+    /**
+     * number of warm-up instantiations
+     */
+    private static final int WARMUP = 100000;
+    /**
+     * number of measured instantiations
+     */
+    private static final int INSTANTIATIONS = Integer.getInteger( "benchmark.variablebuilder.instantiations", 1000000 );
+
+    /**
+     * variable builder benchmark
+     *
+     * @param p_constants number of constants
+     * @throws IOException on agent generation error
+     */
+    @ParameterizedTest
+    @ValueSource( ints = { 2, 20, 50 } )
+    public void variablebuilder( @Nonnegative final int p_constants ) throws IOException
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final IAgent<?> l_agent = new CAgentGenerator().generatesingle();
+
+        final String[] l_names = IntStream.range( 0, p_constants ).mapToObj( i -> "Constant" + i ).toArray( String[]::new );
+
+        final IVariableBuilder l_allocating = ( p_agent, p_instance ) -> IntStream.range( 0, p_constants )
+                                                                                  .mapToObj( i -> new CConstant<>( l_names[i], i ) );
+
+        final CConstantVariableBuilder l_caching = new CConstantVariableBuilder();
+        IntStream.range( 0, p_constants ).forEach( i -> l_caching.constant( l_names[i], i ) );
+
+        Assertions.assertEquals(
+            l_allocating.apply( l_agent, IPlan.EMPTY ).map( IVariable::functor ).sorted().collect( Collectors.toList() ),
+            l_caching.apply( l_agent, IPlan.EMPTY ).map( IVariable::functor ).sorted().collect( Collectors.toList() ),
+            "variables"
+        );
+
+        print( "allocating", p_constants, l_allocating, l_agent );
+        print( "constant", p_constants, l_caching, l_agent );
+    }
+
+    /**
+     * measures and prints the instantiations of a variable builder
+     *
+     * @param p_name name of the builder
+     * @param p_constants number of constants
+     * @param p_builder variable builder
+     * @param p_agent agent
+     */
+    private static void print( @Nonnull final String p_name, @Nonnegative final int p_constants, @Nonnull final IVariableBuilder p_builder,
+                               @Nonnull final IAgent<?> p_agent )
+    {
+        instantiate( p_builder, p_agent, WARMUP );
+
+        final long l_bytes = CAllocation.current();
+        final long l_start = System.nanoTime();
+        final long l_checksum = instantiate( p_builder, p_agent, INSTANTIATIONS );
+        final long l_time = System.nanoTime() - l_start;
+        final long l_allocation = CAllocation.current() - l_bytes;
+
+        Assertions.assertEquals( instantiate( p_builder, p_agent, 1 ) * INSTANTIATIONS, l_checksum, "checksum of the variables" );
+
+        System.out.println( MessageFormat.format(
+            "builder: {0}\tconstants: {1}\tns/instantiation: {2,number,#.#}\tbytes/instantiation: {3,number,#.#}",
+            p_name,
+            p_constants,
+            (double) l_time / INSTANTIATIONS,
+            (double) l_allocation / INSTANTIATIONS
+        ) );
+    }
+
+    /**
+     * runs plan instantiations of a variable builder, each variable is consumed
+     * by a checksum, because the count of a sized stream skips the pipeline
+     *
+     * @param p_builder variable builder
+     * @param p_agent agent
+     * @param p_instantiations number of instantiations
+     * @return checksum of the variable functors
+     */
+    private static long instantiate( @Nonnull final IVariableBuilder p_builder, @Nonnull final IAgent<?> p_agent, @Nonnegative final int p_instantiations )
+    {
+        long l_checksum = 0;
+        for ( int i = 0; i < p_instantiations; i++ )
+            l_checksum += p_builder.apply( p_agent, IPlan.EMPTY ).mapToLong( j -> j.functor().hashCode() ).sum();
+        return l_checksum;
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+import org.lightjason.agentspeak.generator.CActionStaticGenerator;
+import org.lightjason.agentspeak.generator.ILambdaStreamingGenerator;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.execution.instantiable.plan.trigger.CTrigger;
+import org.lightjason.agentspeak.language.execution.instantiable.plan.trigger.ITrigger;
+import org.lightjason.agentspeak.testing.action.CTestMailbox;
+import org.lightjason.agentspeak.testing.action.CTestMessageSend;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of the wake-on-trigger scheduler with mostly idle agents,
+ * a small ratio of agents runs a goal loop, the other agents are idle,
+ * some of them get an external trigger and some are put to sleep on each
+ * tick, the scheduler is compared with cycling all agents on each tick,
+ * the benchmark runs only if the file agentbenchmark.conf exists on the
+ * main directory, the sleeping, wakeup, trigger and notify handling is tested always
+ */
+public final class TestCWakeScheduler extends IBaseTest
+{
+    /**
+     * number of agents
+     */
+    private static final int AGENTS = Integer.getInteger( "benchmark.wake.agents", 100000 );
+    /**
+     * number of measured ticks
+     */
+    private static final int TICKS = Integer.getInteger( "benchmark.wake.ticks", 20 );
+    /**
+     * number of warm-up ticks
+     */
+    private static final int WARMUP = 2;
+    /**
+     * each n-th agent gets an external trigger on a tick
+     */
+    private static final int EVENT = 1000;
+    /**
+     * sleeping cycles of the agents, which are put to sleep on a tick
+     */
+    private static final int SLEEP = 5;
+    /**
+     * plans of an idle agent
+     */
+    private static final String IDLE = "!main.\n\n+!main <-\n    X = 1.\n\n"
+                                       + "+!event <-\n    test/message/send( \"event\", \"sink\" ).\n\n"
+                                       + "+!wakeup <-\n    test/message/send( \"wakeup\", \"sink\" ).\n";
+    /**
+     * plans of an active agent
+     */
+    private static final String ACTIVE = "!main.\n\n+!main <-\n    !main.\n\n"
+                                         + "+!event <-\n    test/message/send( \"event\", \"sink\" ).\n\n"
+                                         + "+!wakeup <-\n    test/message/send( \"wakeup\", \"sink\" ).\n";
+    /**
+     * external trigger
+     */
+    private static final ITrigger TRIGGER = CTrigger.of( ITrigger.EType.ADDGOAL, CLiteral.of( "event" ) );
+    /**
+     * system bean with process cpu time
+     */
+    private static final com.sun.management.OperatingSystemMXBean SYSTEM = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean
+                                                                           ? (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()
+                                                                           : null;
+
+    /**
+     * returns the ratio of active agents
+     *
+     * @return each n-th agent is active
+     */
+    private static Stream<Integer> generate()
+    {
+        return Stream.of( 10, 100, 1000 );
+    }
+
+    /**
+     * compares the wake-on-trigger scheduler with cycling all agents
+     *
+     * @param p_active each n-th agent is active
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void wake( @Nonnegative final int p_active ) throws Exception
+    {
+        Assumptions.assumeTrue( BENCHMARKENABLE, "benchmark is disabled, create file agentbenchmark.conf" );
+
+        final CTestMailbox l_allmailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_allagents = agents( p_active, l_allmailbox );
+        final CMeasurement l_all = measure( l_allagents, l_allmailbox, IAgent::trigger, i -> i.sleep( SLEEP ), () ->
+        {
+            l_allagents.parallelStream().forEach( IBaseTest::agentcycleassert );
+            return l_allagents.size();
+        } );
+
+        final CTestMailbox l_wakemailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_wakeagents = agents( p_active, l_wakemailbox );
+        final CMeasurement l_wake;
+        try ( CWakeScheduler l_scheduler = new CWakeScheduler( IBaseTest::agentcycle ) )
+        {
+            l_wake = measure( l_wakeagents, l_wakemailbox, l_scheduler::trigger, i -> l_scheduler.sleep( i, SLEEP ), () -> l_scheduler.execute( l_wakeagents, 1 ) );
+        }
+
+        Assertions.assertEquals( l_all.m_events, l_wake.m_events, "number of handled external triggers and wakeups" );
+
+        System.out.println( MessageFormat.format(
+            "agents: {0}\tactive: {1}\tall cycles: {2}\tall ms: {3,number,#.###}\tall cpu ms: {4,number,#.###}"
+            + "\twake cycles: {5}\twake ms: {6,number,#.###}\twake cpu ms: {7,number,#.###}",
+            AGENTS,
+            AGENTS / p_active,
+            l_all.m_cycles,
+            l_all.m_time / 1e6,
+            l_all.m_cpu / 1e6,
+            l_wake.m_cycles,
+            l_wake.m_time / 1e6,
+            l_wake.m_cpu / 1e6
+        ) );
+    }
+
+    /**
+     * checks that a sleeping agent is parked until the sleeping cycles are expired
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void sleeping() throws Exception
+    {
+        final CTestMailbox l_mailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_agents = Collections.singletonList( generator( IDLE, l_mailbox ).generatesingle() );
+
+        try ( CWakeScheduler l_scheduler = new CWakeScheduler( IBaseTest::agentcycle ) )
+        {
+            Assertions.assertEquals( 1, l_scheduler.execute( l_agents, 2 ), "initial goal" );
+            Assertions.assertEquals( 1, l_scheduler.parked() );
+
+            l_scheduler.sleep( l_agents.get( 0 ), SLEEP );
+            Assertions.assertEquals( 0, l_scheduler.execute( l_agents, SLEEP - 1 ), "cycles of the sleeping agent" );
+            Assertions.assertTrue( l_agents.get( 0 ).sleeping() );
+            Assertions.assertEquals( 0, l_mailbox.sent() );
+
+            Assertions.assertTrue( l_scheduler.execute( l_agents, 3 ) > 0, "cycles of the woken up agent" );
+            Assertions.assertFalse( l_agents.get( 0 ).sleeping() );
+            Assertions.assertEquals( 1, l_mailbox.sent(), "handled wakeups" );
+            Assertions.assertEquals( 1, l_scheduler.parked() );
+        }
+    }
+
+    /**
+     * checks that an agent, which is woken up before the sleeping end and put to sleep
+     * again, is not woken up by the sleeping end of the first sleep
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void wakeup() throws Exception
+    {
+        final CTestMailbox l_mailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_agents = Collections.singletonList( generator( IDLE, l_mailbox ).generatesingle() );
+
+        try ( CWakeScheduler l_scheduler = new CWakeScheduler( IBaseTest::agentcycle ) )
+        {
+            l_scheduler.execute( l_agents, 2 );
+
+            l_scheduler.sleep( l_agents.get( 0 ), SLEEP );
+            l_scheduler.execute( l_agents, 1 );
+            l_scheduler.wakeup( l_agents.get( 0 ) );
+            l_scheduler.execute( l_agents, 2 );
+            Assertions.assertEquals( 1, l_mailbox.sent(), "handled external wakeups" );
+
+            l_scheduler.sleep( l_agents.get( 0 ), 4 * SLEEP );
+            l_scheduler.execute( l_agents, 2 * SLEEP );
+            Assertions.assertTrue( l_agents.get( 0 ).sleeping(), "agent is woken up by a stale sleeping end" );
+            Assertions.assertEquals( 1, l_mailbox.sent() );
+
+            l_scheduler.execute( l_agents, 2 * SLEEP + 3 );
+            Assertions.assertFalse( l_agents.get( 0 ).sleeping() );
+            Assertions.assertEquals( 2, l_mailbox.sent(), "handled wakeups" );
+        }
+    }
+
+    /**
+     * checks that a parked agent, which gets a trigger by the scheduler, is cycled
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void trigger() throws Exception
+    {
+        final CTestMailbox l_mailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_agents = Collections.singletonList( generator( IDLE, l_mailbox ).generatesingle() );
+
+        try ( CWakeScheduler l_scheduler = new CWakeScheduler( IBaseTest::agentcycle ) )
+        {
+            l_scheduler.execute( l_agents, 2 );
+            Assertions.assertEquals( 0, l_scheduler.execute( l_agents, 2 ), "cycles of the idle agent" );
+
+            l_scheduler.trigger( l_agents.get( 0 ), TRIGGER );
+            Assertions.assertTrue( l_scheduler.execute( l_agents, 2 ) > 0, "cycles of the triggered agent" );
+            Assertions.assertEquals( 1, l_mailbox.sent(), "handled external triggers" );
+            Assertions.assertEquals( 1, l_scheduler.parked() );
+        }
+    }
+
+    /**
+     * checks that a parked agent, which is changed outside the scheduler, is
+     * handled after the change is announced and stays parked before
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    public void notification() throws Exception
+    {
+        final CTestMailbox l_mailbox = new CTestMailbox().register( "sink" );
+        final List<IAgent<?>> l_agents = Collections.singletonList( generator( IDLE, l_mailbox ).generatesingle() );
+
+        try ( CWakeScheduler l_scheduler = new CWakeScheduler( IBaseTest::agentcycle ) )
+        {
+            l_scheduler.execute( l_agents, 2 );
+
+            l_agents.get( 0 ).trigger( TRIGGER );
+            Assertions.assertEquals( 0, l_scheduler.execute( l_agents, 2 ), "cycles of the agent without notification" );
+
+            l_scheduler.notify( l_agents.get( 0 ) );
+            Assertions.assertTrue( l_scheduler.execute( l_agents, 2 ) > 0, "cycles of the notified agent" );
+            Assertions.assertEquals( 1, l_mailbox.sent(), "handled external triggers" );
+
+            l_agents.get( 0 ).sleep( SLEEP );
+            l_scheduler.notify( l_agents.get( 0 ) );
+            Assertions.assertEquals( 0, l_scheduler.execute( l_agents, SLEEP - 1 ), "cycles of the sleeping agent" );
+            Assertions.assertTrue( l_scheduler.execute( l_agents, 3 ) > 0, "cycles of the woken up agent" );
+            Assertions.assertEquals( 2, l_mailbox.sent(), "handled wakeups" );
+        }
+    }
+
+    /**
+     * runs the ticks and triggers the agents
+     *
+     * @param p_agents agents
+     * @param p_mailbox mailbox
+     * @param p_trigger trigger call
+     * @param p_sleep sleep call
+     * @param p_tick tick call, which returns the number of cycles
+     * @return measurement
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static CMeasurement measure( @Nonnull final List<IAgent<?>> p_agents, @Nonnull final CTestMailbox p_mailbox,
+                                         @Nonnull final BiConsumer<IAgent<?>, ITrigger> p_trigger, @Nonnull final Consumer<IAgent<?>> p_sleep,
+                                         @Nonnull final ITick p_tick ) throws Exception
+    {
+        for ( int i = 0; i < WARMUP; i++ )
+            p_tick.call();
+        p_mailbox.reset();
+
+        long l_cycles = 0;
+        final long l_cpu = cputime();
+        final long l_start = System.nanoTime();
+
+        for ( int i = 0; i < TICKS; i++ )
+        {
+            for ( int j = i % EVENT; j < p_agents.size(); j += EVENT )
+                p_trigger.accept( p_agents.get( j ), TRIGGER );
+            for ( int j = ( i + EVENT / 2 ) % EVENT; j < p_agents.size(); j += EVENT )
+                p_sleep.accept( p_agents.get( j ) );
+            l_cycles += p_tick.call();
+        }
+
+        // the triggers and the sleeping agents of the last ticks are handled on additional ticks
+        for ( int i = 0; i < SLEEP + 2; i++ )
+            l_cycles += p_tick.call();
+        return new CMeasurement( l_cycles, System.nanoTime() - l_start, cputime() - l_cpu, p_mailbox.sent() );
+    }
+
+    /**
+     * generates the agents, each n-th agent runs a goal loop, the
+     * other agents are idle after the initial goal, the external
+     * trigger and the wakeup send a message
+     *
+     * @param p_active each n-th agent is active
+     * @param p_mailbox mailbox
+     * @return agents
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static List<IAgent<?>> agents( @Nonnegative final int p_active, @Nonnull final CTestMailbox p_mailbox ) throws Exception
+    {
+        final CAgentGenerator l_active = generator( ACTIVE, p_mailbox );
+        final CAgentGenerator l_idle = generator( IDLE, p_mailbox );
+
+        return IntStream.range( 0, AGENTS )
+                        .mapToObj( i -> i % p_active == 0 ? l_active.generatesingle() : l_idle.generatesingle() )
+                        .collect( Collectors.toList() );
+    }
+
+    /**
+     * creates an agent generator
+     *
+     * @param p_asl plans
+     * @param p_mailbox mailbox
+     * @return generator
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static CAgentGenerator generator( @Nonnull final String p_asl, @Nonnull final CTestMailbox p_mailbox ) throws Exception
+    {
+        return new CAgentGenerator(
+            p_asl,
+            new CActionStaticGenerator( Stream.of( new CTestMessageSend( p_mailbox ) ) ),
+            ILambdaStreamingGenerator.EMPTY
+        );
+    }
+
+    /**
+     * returns the cpu time of the process
+     *
+     * @return cpu time in nanoseconds or zero if not supported
+     */
+    private static long cputime()
+    {
+        return Objects.isNull( SYSTEM ) ? 0 : SYSTEM.getProcessCpuTime();
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * tick call
+     */
+    @FunctionalInterface
+    private interface ITick
+    {
+        /**
+         * executes a tick
+         *
+         * @return number of cycles
+         * @throws Exception on any error
+         */
+        long call() throws Exception;
+    }
+
+    /**
+     * measurement of the ticks
+     */
+    private static final class CMeasurement
+    {
+        /**
+         * number of cycles
+         */
+        private final long m_cycles;
+        /**
+         * wall time in nanoseconds
+         */
+        private final long m_time;
+        /**
+         * cpu time in nanoseconds
+         */
+        private final long m_cpu;
+        /**
+         * number of handled external triggers
+         */
+        private final long m_events;
+
+        /**
+         * ctor
+         *
+         * @param p_cycles number of cycles
+         * @param p_time wall time in nanoseconds
+         * @param p_cpu cpu time in nanoseconds
+         * @param p_events number of handled external triggers
+         */
+        CMeasurement( final long p_cycles, final long p_time, final long p_cpu, final long p_events )
+        {
+            m_cycles = p_cycles;
+            m_time = p_time;
+            m_cpu = p_cpu;
+            m_events = p_events;
+        }
+    }
+}
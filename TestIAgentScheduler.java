@@ -0,0 +1,173 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lightjason.agentspeak.agent.IAgent;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * test of the common behaviour of all agent schedulers, the cycle
+ * counts, the error propagation and the shutdown are tested for
+ * each scheduler implementation
+ */
+public final class TestIAgentScheduler extends IBaseTest
+{
+    /**
+     * number of agents
+     */
+    private static final int AGENTS = 100;
+    /**
+     * number of cycles of each agent
+     */
+    private static final int CYCLES = 5;
+
+    /**
+     * returns the scheduler implementations, each one is created
+     * by the cycle call and is empty if it is not supported
+     *
+     * @return test arguments
+     */
+    private static Stream<Arguments> generate()
+    {
+        return Stream.of(
+            Arguments.of( "platform", (Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>>) i -> Optional.of( CThreadScheduler.platform( 4, i ) ) ),
+            Arguments.of( "virtual", (Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>>) i -> CThreadScheduler.virtual( i ).map( j -> j ) ),
+            Arguments.of( "affinity", (Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>>) i -> Optional.of( new CAffinityScheduler( 4, 1, i ) ) ),
+            Arguments.of( "fair-share", (Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>>) i -> Optional.of( new CFairShareScheduler( 4, 10, i ) ) )
+        );
+    }
+
+    /**
+     * checks that each agent is cycled for the number of cycles
+     *
+     * @param p_name scheduler name
+     * @param p_scheduler scheduler factory
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void cycles( @Nonnull final String p_name, @Nonnull final Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>> p_scheduler ) throws Exception
+    {
+        final AtomicLong l_calls = new AtomicLong();
+        try ( IAgentScheduler l_scheduler = scheduler( p_scheduler, i -> l_calls.incrementAndGet() % 2 == 0 ) )
+        {
+            Assertions.assertEquals( AGENTS * CYCLES / 2, l_scheduler.execute( agents(), CYCLES ), p_name );
+            Assertions.assertEquals( AGENTS * CYCLES, l_calls.get(), p_name );
+        }
+    }
+
+    /**
+     * checks that an error of a cycle stops all
+     * agents and is thrown by the execution
+     *
+     * @param p_name scheduler name
+     * @param p_scheduler scheduler factory
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void error( @Nonnull final String p_name, @Nonnull final Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>> p_scheduler ) throws Exception
+    {
+        final AtomicLong l_calls = new AtomicLong();
+        try ( IAgentScheduler l_scheduler = scheduler( p_scheduler, i ->
+        {
+            if ( l_calls.incrementAndGet() == 10 )
+                throw new UnsupportedOperationException( "cycle error" );
+            return true;
+        } ) )
+        {
+            final List<IAgent<?>> l_agents = agents();
+            final IllegalStateException l_exception = Assertions.assertTimeoutPreemptively(
+                Duration.ofSeconds( 10 ),
+                () -> Assertions.assertThrows( IllegalStateException.class, () -> l_scheduler.execute( l_agents, CYCLES ), p_name )
+            );
+            Assertions.assertTrue( l_exception.getCause() instanceof UnsupportedOperationException, p_name );
+        }
+    }
+
+    /**
+     * checks that a closed scheduler does not execute agents
+     *
+     * @param p_name scheduler name
+     * @param p_scheduler scheduler factory
+     * @throws Exception on any error
+     */
+    @ParameterizedTest
+    @MethodSource( "generate" )
+    public void shutdown( @Nonnull final String p_name, @Nonnull final Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>> p_scheduler ) throws Exception
+    {
+        final List<IAgent<?>> l_agents = agents();
+        final IAgentScheduler l_scheduler = scheduler( p_scheduler, i -> true );
+
+        Assertions.assertEquals( AGENTS * CYCLES, l_scheduler.execute( l_agents, CYCLES ), p_name );
+        l_scheduler.close();
+        Assertions.assertThrows( RejectedExecutionException.class, () -> l_scheduler.execute( l_agents, CYCLES ), p_name );
+    }
+
+    /**
+     * creates a scheduler and skips the test if the scheduler is not supported
+     *
+     * @param p_scheduler scheduler factory
+     * @param p_cycle cycle call of an agent
+     * @return scheduler
+     */
+    @Nonnull
+    private static IAgentScheduler scheduler( @Nonnull final Function<Predicate<IAgent<?>>, Optional<IAgentScheduler>> p_scheduler,
+                                              @Nonnull final Predicate<IAgent<?>> p_cycle )
+    {
+        final Optional<IAgentScheduler> l_scheduler = p_scheduler.apply( p_cycle );
+        Assumptions.assumeTrue( l_scheduler.isPresent(), "scheduler is not supported" );
+        return l_scheduler.get();
+    }
+
+    /**
+     * generates empty agents
+     *
+     * @return agents
+     * @throws Exception on any error
+     */
+    @Nonnull
+    private static List<IAgent<?>> agents() throws Exception
+    {
+        final CAgentGenerator l_generator = new CAgentGenerator();
+        return IntStream.range( 0, AGENTS ).mapToObj( i -> l_generator.generatesingle() ).collect( Collectors.toList() );
+    }
+}
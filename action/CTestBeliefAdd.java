@@ -0,0 +1,92 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing.action;
+
+import org.lightjason.agentspeak.action.IBaseAction;
+import org.lightjason.agentspeak.common.CPath;
+import org.lightjason.agentspeak.common.IPath;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.ILiteral;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.agentspeak.language.execution.IContext;
+import org.lightjason.agentspeak.language.fuzzy.IFuzzyValue;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * test action to add beliefs in bulk, the first argument is the functor
+ * and the second argument the number of beliefs, the beliefs are
+ * functor( 0 ) to functor( n - 1 ) with numbers of the asl number type
+ */
+public final class CTestBeliefAdd extends IBaseAction
+{
+    /**
+     * serial id
+     */
+    private static final long serialVersionUID = -1598316247605117409L;
+    /**
+     * action name
+     */
+    private static final IPath NAME = CPath.of( "test/belief/add" );
+    /**
+     * number of beliefs, which are added together
+     */
+    private static final int BATCH = 10000;
+
+    @Nonnull
+    @Override
+    public IPath name()
+    {
+        return NAME;
+    }
+
+    @Override
+    public int minimalArgumentNumber()
+    {
+        return 2;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<IFuzzyValue<?>> execute( final boolean p_parallel, @Nonnull final IContext p_context, @Nonnull final List<ITerm> p_argument,
+                                           @Nonnull final List<ITerm> p_return )
+    {
+        final String l_functor = p_argument.get( 0 ).raw();
+        final int l_count = p_argument.get( 1 ).<Number>raw().intValue();
+
+        for ( int i = 0; i < l_count; i += BATCH )
+            p_context.agent().beliefbase().add(
+                IntStream.range( i, Math.min( i + BATCH, l_count ) )
+                         .mapToObj( j -> CLiteral.of( l_functor, CRawTerm.of( (double) j ) ) )
+                         .toArray( ILiteral[]::new )
+            );
+
+        return Stream.empty();
+    }
+}
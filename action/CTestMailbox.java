@@ -0,0 +1,202 @@
+/*
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason                                                #
+ * # Copyright (c) 2015-19, LightJason (info@lightjason.org)                            #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.agentspeak.testing.action;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * in-memory mailbox registry for message passing tests, each agent name
+ * has got a mailbox, the end-to-end latency of the messages is stored
+ * in a histogram with power-of-two buckets of nanoseconds
+ */
+public final class CTestMailbox
+{
+    /**
+     * mailboxes of the agent names
+     */
+    private final Map<String, Queue<CEnvelope>> m_mailboxes = new ConcurrentHashMap<>();
+    /**
+     * number of sent messages
+     */
+    private final LongAdder m_sent = new LongAdder();
+    /**
+     * number of delivered messages
+     */
+    private final LongAdder m_delivered = new LongAdder();
+    /**
+     * latency histogram, bucket i counts latencies below 2^i nanoseconds
+     */
+    private final AtomicLongArray m_latency = new AtomicLongArray( Long.SIZE );
+
+    /**
+     * registers a mailbox
+     *
+     * @param p_name agent name
+     * @return self reference
+     */
+    @Nonnull
+    public CTestMailbox register( @Nonnull final String p_name )
+    {
+        m_mailboxes.putIfAbsent( p_name, new ConcurrentLinkedQueue<>() );
+        return this;
+    }
+
+    /**
+     * sends a message
+     *
+     * @param p_receiver receiver name
+     * @param p_payload message payload
+     * @return message is sent
+     */
+    public boolean send( @Nonnull final String p_receiver, @Nonnull final Object p_payload )
+    {
+        final Queue<CEnvelope> l_mailbox = m_mailboxes.get( p_receiver );
+        if ( Objects.isNull( l_mailbox ) )
+            return false;
+
+        l_mailbox.add( new CEnvelope( p_payload ) );
+        m_sent.increment();
+        return true;
+    }
+
+    /**
+     * receives all messages of a mailbox
+     *
+     * @param p_receiver receiver name
+     * @return message payloads
+     */
+    @Nonnull
+    public List<Object> receive( @Nonnull final String p_receiver )
+    {
+        final Queue<CEnvelope> l_mailbox = m_mailboxes.get( p_receiver );
+        if ( Objects.isNull( l_mailbox ) )
+            return Collections.emptyList();
+
+        final List<Object> l_payloads = new ArrayList<>();
+        for ( CEnvelope l_envelope = l_mailbox.poll(); Objects.nonNull( l_envelope ); l_envelope = l_mailbox.poll() )
+        {
+            m_latency.incrementAndGet( Long.SIZE - Long.numberOfLeadingZeros( Math.max( 1, System.nanoTime() - l_envelope.m_time ) ) );
+            l_payloads.add( l_envelope.m_payload );
+        }
+
+        m_delivered.add( l_payloads.size() );
+        return l_payloads;
+    }
+
+    /**
+     * resets the counters and the latency histogram, pending messages are kept
+     *
+     * @return self reference
+     */
+    @Nonnull
+    public CTestMailbox reset()
+    {
+        m_sent.reset();
+        m_delivered.reset();
+        for ( int i = 0; i < m_latency.length(); i++ )
+            m_latency.set( i, 0 );
+        return this;
+    }
+
+    /**
+     * returns the number of sent messages
+     *
+     * @return number of messages
+     */
+    @Nonnegative
+    public long sent()
+    {
+        return m_sent.sum();
+    }
+
+    /**
+     * returns the number of delivered messages
+     *
+     * @return number of messages
+     */
+    @Nonnegative
+    public long delivered()
+    {
+        return m_delivered.sum();
+    }
+
+    /**
+     * returns the upper bound of a latency quantile
+     *
+     * @param p_quantile quantile in [0, 1]
+     * @return latency in nanoseconds
+     */
+    @Nonnegative
+    public long latency( final double p_quantile )
+    {
+        final long l_rank = (long) Math.ceil( p_quantile * this.delivered() );
+        long l_count = 0;
+        for ( int i = 0; i < m_latency.length(); i++ )
+        {
+            l_count += m_latency.get( i );
+            if ( l_count >= l_rank && l_count > 0 )
+                return 1L << Math.min( i, Long.SIZE - 2 );
+        }
+        return 0;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * message envelope with the send time
+     */
+    private static final class CEnvelope
+    {
+        /**
+         * send time in nanoseconds
+         */
+        private final long m_time = System.nanoTime();
+        /**
+         * payload
+         */
+        private final Object m_payload;
+
+        /**
+         * ctor
+         *
+         * @param p_payload payload
+         */
+        CEnvelope( @Nonnull final Object p_payload )
+        {
+            m_payload = p_payload;
+        }
+    }
+}